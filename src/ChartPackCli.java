@@ -0,0 +1,36 @@
+import Utilities.AnalyticsSnapshot;
+import Utilities.ChartPackRenderer;
+import Utilities.DatabaseConnectionManager;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Nightly entry point that renders the analytics chart packs to PNG without a display.
+ * Arguments: [outputDir] [threads]. Image size comes from -Dcharts.width and -Dcharts.height.
+ */
+public class ChartPackCli {
+    public static void main(String[] args) throws Exception {
+        // Must be set before any AWT class loads
+        System.setProperty("java.awt.headless", "true");
+
+        Path outputDir = Paths.get(args.length > 0 ? args[0] : "chart-pack");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int width = Integer.getInteger("charts.width", 800);
+        int height = Integer.getInteger("charts.height", 500);
+
+        DatabaseConnectionManager dbManager = DatabaseConnectionManager.getInstance();
+        ChartPackRenderer.Result result;
+        try {
+            AnalyticsSnapshot snapshot = AnalyticsSnapshot.load(dbManager);
+            result = new ChartPackRenderer(snapshot, threads, width, height).render(outputDir);
+        } finally {
+            dbManager.closeConnection();
+        }
+
+        System.out.println("Charts written to " + outputDir.toAbsolutePath() + ": " + result);
+        if (result.getChartsFailed() > 0) {
+            System.exit(1);
+        }
+    }
+}
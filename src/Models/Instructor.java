@@ -1,5 +1,11 @@
 package Models;
 
+import Utilities.CourseSummaryService;
+import Utilities.DataChange;
+import Utilities.DataChangeNotifier;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -81,18 +87,59 @@ public class Instructor extends Person {
     }
 
     public void assignGrade(int enrollmentId, double score, String feedback) {
+        String previousSql = "SELECT e.courseId, COUNT(ad.distributionId) AS totalCount, " +
+                "COUNT(CASE WHEN ad.isGraded = 1 THEN ad.score END) AS gradedCount, " +
+                "COALESCE(SUM(CASE WHEN ad.isGraded = 1 THEN ad.score END), 0) AS gradedSum " +
+                "FROM enrollment e " +
+                "JOIN assignmentdistribution ad ON e.enrollmentId = ad.enrollmentId " +
+                "WHERE e.enrollmentId = ? " +
+                "GROUP BY e.courseId " +
+                "FOR UPDATE";
         String sql = "UPDATE assignmentdistribution SET " +
                 "score = ?, isGraded = 1, feedback = ? " +
                 "WHERE enrollmentId = ?";
 
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Read what this update replaces so the course summary can be adjusted by the difference
+                int courseId;
+                int totalCount;
+                int gradedCount;
+                BigDecimal gradedSum;
+                try (PreparedStatement pstmt = conn.prepareStatement(previousSql)) {
+                    pstmt.setInt(1, enrollmentId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.commit();
+                            return;
+                        }
+                        courseId = rs.getInt("courseId");
+                        totalCount = rs.getInt("totalCount");
+                        gradedCount = rs.getInt("gradedCount");
+                        gradedSum = rs.getBigDecimal("gradedSum");
+                    }
+                }
 
-            pstmt.setDouble(1, score);
-            pstmt.setString(2, feedback);
-            pstmt.setInt(3, enrollmentId);
+                BigDecimal storedScore = BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setBigDecimal(1, storedScore);
+                    pstmt.setString(2, feedback);
+                    pstmt.setInt(3, enrollmentId);
 
-            pstmt.executeUpdate();
+                    pstmt.executeUpdate();
+                }
+
+                CourseSummaryService.getInstance().recordScoreChange(conn, courseId,
+                        totalCount - gradedCount,
+                        storedScore.multiply(BigDecimal.valueOf(totalCount)).subtract(gradedSum));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            DataChangeNotifier.getInstance().fire(DataChange.GRADE);
 
         } catch (SQLException e) {
             e.printStackTrace();
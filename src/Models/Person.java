@@ -1,10 +1,14 @@
 package Models;
 
 import Utilities.DatabaseConnectionManager;
+import Utilities.Pbkdf2PasswordHasher;
 
 import java.time.LocalDateTime;
+import java.util.regex.Pattern;
 
 public abstract class Person {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
     protected int id;
     protected String name;
     protected String email;
@@ -22,7 +26,7 @@ public abstract class Person {
         this.isActive = true;
         this.dateCreated = LocalDateTime.now();
         this.lastUpdated = LocalDateTime.now();
-        this.dbManager = new DatabaseConnectionManager();
+        this.dbManager = DatabaseConnectionManager.getInstance();
     }
 
     public abstract void updateProfile();
@@ -62,10 +66,14 @@ public abstract class Person {
     }
 
     private String hashPassword(String password) {
-        return password; // Simplified for example
+        return Pbkdf2PasswordHasher.getInstance().hash(password);
     }
 
     protected boolean isValidEmail(String email) {
-        return email != null && email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+        return isValidEmailAddress(email);
+    }
+
+    public static boolean isValidEmailAddress(String email) {
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
     }
 }
\ No newline at end of file
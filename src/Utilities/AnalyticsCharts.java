@@ -0,0 +1,84 @@
+package Utilities;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.general.PieDataset;
+
+import java.util.List;
+
+/**
+ * Builds the analytics charts, so on-screen reports and the headless renderer draw the same thing.
+ * Nothing here touches Swing components; callers decide whether to show or save the chart.
+ */
+public final class AnalyticsCharts {
+    private AnalyticsCharts() {
+    }
+
+    public static DefaultCategoryDataset enrollmentDataset(List<CourseEnrollmentStats> courses) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (CourseEnrollmentStats course : courses) {
+            dataset.addValue(course.enrollmentCount(), "Enrollments", course.courseName());
+        }
+        return dataset;
+    }
+
+    /**
+     * @param gradeHistogram Counts indexed by Grade ordinal; empty grades get no slice
+     */
+    public static DefaultPieDataset<String> gradeDataset(int[] gradeHistogram) {
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+        for (int i = 0; i < gradeHistogram.length; i++) {
+            if (gradeHistogram[i] > 0) {
+                dataset.setValue(Grade.valueAt(i).getLabel(), gradeHistogram[i]);
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * Courses without graded enrollments are left out rather than drawn as zero.
+     */
+    public static DefaultCategoryDataset averageGradePointsDataset(List<CourseGradeStats> courses) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (CourseGradeStats course : courses) {
+            if (course.gradedCount() > 0) {
+                dataset.addValue(course.averageGradePoints(), "Average GPA", course.courseName());
+            }
+        }
+        return dataset;
+    }
+
+    public static JFreeChart createEnrollmentBarChart(String title, CategoryDataset dataset) {
+        return ChartFactory.createBarChart(
+                title,
+                "Courses",
+                "Number of Students",
+                dataset,
+                PlotOrientation.VERTICAL,
+                false, true, false
+        );
+    }
+
+    public static <K extends Comparable<K>> JFreeChart createGradePieChart(String title, PieDataset<K> dataset) {
+        return ChartFactory.createPieChart(
+                title,
+                dataset,
+                true, true, false
+        );
+    }
+
+    public static JFreeChart createAverageGradePointsBarChart(String title, CategoryDataset dataset) {
+        return ChartFactory.createBarChart(
+                title,
+                "Courses",
+                "Average Grade Points",
+                dataset,
+                PlotOrientation.VERTICAL,
+                false, true, false
+        );
+    }
+}
@@ -11,57 +11,77 @@ import java.util.Map;
 
 public class AnalyticsEngine implements CourseAnalytics {
     private DatabaseConnectionManager dbManager;
+    private CourseSummaryService courseSummaryService;
+    private AnalyticsSnapshotService snapshotService;
 
     public AnalyticsEngine() {
-        this.dbManager = new DatabaseConnectionManager();
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        this.courseSummaryService = CourseSummaryService.getInstance();
     }
 
-    @Override
-    public Map<String, Object> generateEnrollmentStatistics() {
-        Map<String, Object> enrollmentStats = new HashMap<>();
-        String sql = "SELECT c.courseName, COUNT(e.enrollmentId) as enrollmentCount, " +
-                "c.credits, i.instructorName " +
-                "FROM course c " +
-                "LEFT JOIN enrollment e ON c.courseId = e.courseId " +
-                "LEFT JOIN instructor i ON c.instructorId = i.instructorId " +
-                "GROUP BY c.courseId, c.courseName, c.credits, i.instructorName";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
+    /**
+     * Serves every result from the in-memory snapshot instead of querying per call.
+     */
+    public AnalyticsEngine(AnalyticsSnapshotService snapshotService) {
+        this();
+        this.snapshotService = snapshotService;
+    }
 
-            List<Map<String, Object>> courseEnrollments = new ArrayList<>();
-            int totalEnrollments = 0;
-            int totalCourses = 0;
+    @Override
+    public List<CourseEnrollmentStats> getCourseEnrollmentStats() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getCourseEnrollmentStats()
+                : courseSummaryService.getCourseEnrollmentStats();
+    }
 
-            while (rs.next()) {
-                Map<String, Object> courseData = new HashMap<>();
-                courseData.put("courseName", rs.getString("courseName"));
-                courseData.put("enrollmentCount", rs.getInt("enrollmentCount"));
-                courseData.put("credits", rs.getInt("credits"));
-                courseData.put("instructorName", rs.getString("instructorName"));
-
-                courseEnrollments.add(courseData);
-                totalEnrollments += rs.getInt("enrollmentCount");
-                totalCourses++;
-            }
+    @Override
+    public List<CourseGradeStats> getCourseGradeStats() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getCourseGradeStats()
+                : courseSummaryService.getCourseGradeStats();
+    }
 
-            enrollmentStats.put("courseEnrollments", courseEnrollments);
-            enrollmentStats.put("totalEnrollments", totalEnrollments);
-            enrollmentStats.put("totalCourses", totalCourses);
-            enrollmentStats.put("averageEnrollmentPerCourse",
-                    totalCourses > 0 ? (double) totalEnrollments / totalCourses : 0);
+    @Override
+    public int[] getGradeHistogram() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getGradeHistogram()
+                : courseSummaryService.getGradeHistogram();
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to generate enrollment statistics", e);
+    @Override
+    public Map<String, Object> generateEnrollmentStatistics() {
+        Map<String, Object> enrollmentStats = new HashMap<>();
+        List<Map<String, Object>> courseEnrollments = new ArrayList<>();
+        int totalEnrollments = 0;
+        int totalCourses = 0;
+
+        for (CourseEnrollmentStats course : getCourseEnrollmentStats()) {
+            Map<String, Object> courseData = new HashMap<>();
+            courseData.put("courseName", course.courseName());
+            courseData.put("enrollmentCount", course.enrollmentCount());
+            courseData.put("credits", course.credits());
+            courseData.put("instructorName", course.instructorName());
+
+            courseEnrollments.add(courseData);
+            totalEnrollments += course.enrollmentCount();
+            totalCourses++;
         }
 
+        enrollmentStats.put("courseEnrollments", courseEnrollments);
+        enrollmentStats.put("totalEnrollments", totalEnrollments);
+        enrollmentStats.put("totalCourses", totalCourses);
+        enrollmentStats.put("averageEnrollmentPerCourse",
+                totalCourses > 0 ? (double) totalEnrollments / totalCourses : 0);
+
         return enrollmentStats;
     }
 
     @Override
     public Map<String, Object> generateGradeDistribution() {
+        if (snapshotService != null) {
+            return gradeDistributionFromSnapshot(snapshotService.getSnapshot());
+        }
+
         Map<String, Object> gradeDistribution = new HashMap<>();
         String sql = "SELECT " +
                 "CASE " +
@@ -107,43 +127,55 @@ public class AnalyticsEngine implements CourseAnalytics {
         return gradeDistribution;
     }
 
+    /**
+     * Also carries the averageGPA and totalStudents keys that CourseAnalyticsImpl emits, so map-based
+     * report code works with either implementation.
+     */
     @Override
     public List<Map<String, Object>> getAverageGradesByCourse() {
         List<Map<String, Object>> courseGrades = new ArrayList<>();
-        String sql = "SELECT c.courseName, " +
-                "ROUND(AVG(ad.score), 2) as averageScore, " +
-                "COUNT(ad.enrollmentId) as studentCount, " +
-                "i.instructorName " +
-                "FROM course c " +
-                "LEFT JOIN enrollment e ON c.courseId = e.courseId " +
-                "LEFT JOIN assignmentdistribution ad ON e.enrollmentId = ad.enrollmentId " +
-                "LEFT JOIN instructor i ON c.instructorId = i.instructorId " +
-                "WHERE ad.isGraded = 1 " +
-                "GROUP BY c.courseId, c.courseName, i.instructorName";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
 
-            while (rs.next()) {
-                Map<String, Object> courseData = new HashMap<>();
-                courseData.put("courseName", rs.getString("courseName"));
-                courseData.put("averageScore", rs.getDouble("averageScore"));
-                courseData.put("studentCount", rs.getInt("studentCount"));
-                courseData.put("instructorName", rs.getString("instructorName"));
+        for (CourseGradeStats course : getCourseGradeStats()) {
+            if (course.scoreCount() == 0) {
+                continue;
+            }
+            double averageScore = Math.round(course.averageScore() * 100) / 100.0;
+
+            Map<String, Object> courseData = new HashMap<>();
+            courseData.put("courseName", course.courseName());
+            courseData.put("averageScore", averageScore);
+            courseData.put("studentCount", course.scoreCount());
+            courseData.put("instructorName", course.instructorName());
+            courseData.put("gradeLetter", determineGradeLetter(averageScore));
+            courseData.put("averageGPA", course.averageGradePoints());
+            courseData.put("totalStudents", course.enrollmentCount());
+
+            courseGrades.add(courseData);
+        }
 
-                String gradeLetter = determineGradeLetter(rs.getDouble("averageScore"));
-                courseData.put("gradeLetter", gradeLetter);
+        return courseGrades;
+    }
 
-                courseGrades.add(courseData);
+    private Map<String, Object> gradeDistributionFromSnapshot(AnalyticsSnapshot snapshot) {
+        int[] counts = snapshot.getScoreBandCounts();
+        double[] averages = snapshot.getScoreBandAverages();
+
+        Map<String, Integer> gradeCounts = new HashMap<>();
+        Map<String, Double> gradeAverages = new HashMap<>();
+        int totalGradedAssignments = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                gradeCounts.put(AnalyticsSnapshot.SCORE_BANDS[i], counts[i]);
+                gradeAverages.put(AnalyticsSnapshot.SCORE_BANDS[i], Math.round(averages[i] * 100) / 100.0);
+                totalGradedAssignments += counts[i];
             }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to retrieve average grades by course", e);
         }
 
-        return courseGrades;
+        Map<String, Object> gradeDistribution = new HashMap<>();
+        gradeDistribution.put("gradeCounts", gradeCounts);
+        gradeDistribution.put("gradeAverages", gradeAverages);
+        gradeDistribution.put("totalGradedAssignments", totalGradedAssignments);
+        return gradeDistribution;
     }
 
     private String determineGradeLetter(double score) {
@@ -0,0 +1,395 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable in-memory copy of the data behind the course analytics, held as primitive columns.
+ * Enrollments and graded submissions are streamed once and reduced in parallel with fork/join;
+ * every accessor afterwards is O(courses).
+ */
+public class AnalyticsSnapshot {
+    /** Score bands used by AnalyticsEngine's grade distribution, highest first. */
+    public static final String[] SCORE_BANDS = {"A", "B", "C", "D", "F"};
+
+    private static final int FETCH_SIZE = 1_000;
+    private static final int PARALLEL_THRESHOLD = 16_384;
+
+    private static final String COURSES_SQL =
+            "SELECT c.courseId, c.courseName, c.credits, c.instructorId, i.instructorName, i.department " +
+            "FROM course c LEFT JOIN instructor i ON c.instructorId = i.instructorId " +
+            "ORDER BY c.courseId";
+    private static final String ENROLLMENTS_SQL = "SELECT courseId, grade FROM enrollment";
+    private static final String SCORES_SQL =
+            "SELECT e.courseId, ad.score " +
+            "FROM assignmentdistribution ad JOIN enrollment e ON ad.enrollmentId = e.enrollmentId " +
+            "WHERE ad.isGraded = 1 AND ad.score IS NOT NULL";
+
+    // Course columns, sorted by courseId so a course's index can be found with a binary search
+    private final int[] courseIds;
+    private final String[] courseNames;
+    private final int[] credits;
+    private final int[] instructorIds;
+    private final String[] instructorNames;
+    private final String[] departments;
+
+    // Per-row columns; course columns hold the course index, not the id
+    private final int[] enrollmentCourse;
+    private final byte[] enrollmentGrade;
+    private final int[] scoreCourse;
+    private final float[] score;
+
+    private final EnrollmentTotals enrollmentTotals;
+    private final ScoreTotals scoreTotals;
+    private final long loadedAt;
+    private final long loadMillis;
+
+    private AnalyticsSnapshot(int[] courseIds, String[] courseNames, int[] credits, int[] instructorIds,
+                              String[] instructorNames, String[] departments, int[] enrollmentCourse, byte[] enrollmentGrade, int[] scoreCourse, float[] score,
+                              long startedAt) {
+        this.courseIds = courseIds;
+        this.courseNames = courseNames;
+        this.credits = credits;
+        this.instructorIds = instructorIds;
+        this.instructorNames = instructorNames;
+        this.departments = departments;
+        this.enrollmentCourse = enrollmentCourse;
+        this.enrollmentGrade = enrollmentGrade;
+        this.scoreCourse = scoreCourse;
+        this.score = score;
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        this.enrollmentTotals = pool.invoke(new EnrollmentReduction(this, 0, enrollmentCourse.length));
+        this.scoreTotals = pool.invoke(new ScoreReduction(this, 0, scoreCourse.length));
+
+        this.loadedAt = System.currentTimeMillis();
+        this.loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Streams the course, enrollment and graded submission rows on one connection and reduces them.
+     */
+    public static AnalyticsSnapshot load(DatabaseConnectionManager dbManager) {
+        long startedAt = System.nanoTime();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setReadOnly(true);
+
+            List<Object[]> courses = new ArrayList<>();
+            try (PreparedStatement pstmt = openStream(conn, COURSES_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(new Object[]{rs.getInt("courseId"), rs.getString("courseName"),
+                            rs.getInt("credits"), rs.getInt("instructorId"), rs.getString("instructorName"),
+                            rs.getString("department")});
+                }
+            }
+
+            int courseCount = courses.size();
+            int[] courseIds = new int[courseCount];
+            String[] courseNames = new String[courseCount];
+            int[] credits = new int[courseCount];
+            int[] instructorIds = new int[courseCount];
+            String[] instructorNames = new String[courseCount];
+            String[] departments = new String[courseCount];
+            for (int i = 0; i < courseCount; i++) {
+                Object[] course = courses.get(i);
+                courseIds[i] = (Integer) course[0];
+                courseNames[i] = (String) course[1];
+                credits[i] = (Integer) course[2];
+                instructorIds[i] = (Integer) course[3];
+                instructorNames[i] = (String) course[4];
+                departments[i] = (String) course[5];
+            }
+
+            int[] enrollmentCourse = new int[1024];
+            byte[] enrollmentGrade = new byte[1024];
+            int enrollments = 0;
+            try (PreparedStatement pstmt = openStream(conn, ENROLLMENTS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int courseIndex = Arrays.binarySearch(courseIds, rs.getInt(1));
+                    if (courseIndex < 0) {
+                        continue;
+                    }
+                    if (enrollments == enrollmentCourse.length) {
+                        enrollmentCourse = Arrays.copyOf(enrollmentCourse, enrollments * 2);
+                        enrollmentGrade = Arrays.copyOf(enrollmentGrade, enrollments * 2);
+                    }
+                    Grade grade = Grade.fromLabel(rs.getString(2));
+                    enrollmentCourse[enrollments] = courseIndex;
+                    enrollmentGrade[enrollments] = grade == null ? -1 : (byte) grade.ordinal();
+                    enrollments++;
+                }
+            }
+
+            int[] scoreCourse = new int[1024];
+            float[] score = new float[1024];
+            int scores = 0;
+            try (PreparedStatement pstmt = openStream(conn, SCORES_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int courseIndex = Arrays.binarySearch(courseIds, rs.getInt(1));
+                    if (courseIndex < 0) {
+                        continue;
+                    }
+                    if (scores == scoreCourse.length) {
+                        scoreCourse = Arrays.copyOf(scoreCourse, scores * 2);
+                        score = Arrays.copyOf(score, scores * 2);
+                    }
+                    scoreCourse[scores] = courseIndex;
+                    score[scores] = rs.getFloat(2);
+                    scores++;
+                }
+            }
+
+            return new AnalyticsSnapshot(courseIds, courseNames, credits, instructorIds, instructorNames, departments,
+                    Arrays.copyOf(enrollmentCourse, enrollments), Arrays.copyOf(enrollmentGrade, enrollments),
+                    Arrays.copyOf(scoreCourse, scores), Arrays.copyOf(score, scores), startedAt);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load analytics snapshot", e);
+        }
+    }
+
+    public List<CourseEnrollmentStats> getCourseEnrollmentStats() {
+        List<CourseEnrollmentStats> stats = new ArrayList<>(courseIds.length);
+        for (int i = 0; i < courseIds.length; i++) {
+            stats.add(new CourseEnrollmentStats(courseIds[i], courseNames[i], credits[i], instructorNames[i],
+                    enrollmentTotals.enrollmentCounts[i]));
+        }
+        return stats;
+    }
+
+    public List<CourseGradeStats> getCourseGradeStats() {
+        int gradeCount = Grade.count();
+        List<CourseGradeStats> stats = new ArrayList<>(courseIds.length);
+        for (int i = 0; i < courseIds.length; i++) {
+            int graded = 0;
+            double points = 0;
+            for (int g = 0; g < gradeCount; g++) {
+                int count = enrollmentTotals.gradeCounts[i * gradeCount + g];
+                graded += count;
+                points += count * Grade.valueAt(g).getPoints();
+            }
+            int scored = scoreTotals.scoreCounts[i];
+            stats.add(new CourseGradeStats(courseIds[i], courseNames[i], instructorNames[i],
+                    enrollmentTotals.enrollmentCounts[i], graded, graded > 0 ? points / graded : 0,
+                    scored, scored > 0 ? scoreTotals.scoreSums[i] / scored : 0));
+        }
+        return stats;
+    }
+
+    /**
+     * @return Enrollment counts per letter grade across all courses, indexed by Grade ordinal
+     */
+    public int[] getGradeHistogram() {
+        return getGradeHistogram(courseId -> true);
+    }
+
+    /**
+     * @return Enrollment counts per letter grade across the courses whose id passes the filter
+     */
+    public int[] getGradeHistogram(IntPredicate courseIdFilter) {
+        int gradeCount = Grade.count();
+        int[] histogram = new int[gradeCount];
+        for (int course = 0; course < courseIds.length; course++) {
+            if (courseIdFilter.test(courseIds[course])) {
+                for (int g = 0; g < gradeCount; g++) {
+                    histogram[g] += enrollmentTotals.gradeCounts[course * gradeCount + g];
+                }
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * @return Id of the course's instructor, or null for an unknown course or one with no instructor
+     */
+    public Integer getInstructorId(int courseId) {
+        int index = Arrays.binarySearch(courseIds, courseId);
+        return index >= 0 && instructorIds[index] > 0 ? instructorIds[index] : null;
+    }
+
+    /**
+     * @return Department of the course's instructor, or null for an unknown course or instructor
+     */
+    public String getDepartment(int courseId) {
+        int index = Arrays.binarySearch(courseIds, courseId);
+        return index >= 0 ? departments[index] : null;
+    }
+
+    /**
+     * @return Graded submission counts per score band, indexed like SCORE_BANDS
+     */
+    public int[] getScoreBandCounts() {
+        return scoreTotals.bandCounts.clone();
+    }
+
+    /**
+     * @return Mean score per score band, indexed like SCORE_BANDS, or 0 for an empty band
+     */
+    public double[] getScoreBandAverages() {
+        double[] averages = new double[SCORE_BANDS.length];
+        for (int i = 0; i < averages.length; i++) {
+            int count = scoreTotals.bandCounts[i];
+            averages[i] = count > 0 ? scoreTotals.bandSums[i] / count : 0;
+        }
+        return averages;
+    }
+
+    public int getCourseCount() {
+        return courseIds.length;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCourse.length;
+    }
+
+    public int getGradedSubmissionCount() {
+        return scoreCourse.length;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    private static int scoreBand(float value) {
+        if (value >= 90) return 0;
+        if (value >= 80) return 1;
+        if (value >= 70) return 2;
+        if (value >= 60) return 3;
+        return 4;
+    }
+
+    private static PreparedStatement openStream(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(FETCH_SIZE);
+        return pstmt;
+    }
+
+    private static class EnrollmentTotals {
+        private final int[] enrollmentCounts;
+        private final int[] gradeCounts;
+
+        private EnrollmentTotals(int courseCount) {
+            this.enrollmentCounts = new int[courseCount];
+            this.gradeCounts = new int[courseCount * Grade.count()];
+        }
+
+        private EnrollmentTotals merge(EnrollmentTotals other) {
+            for (int i = 0; i < enrollmentCounts.length; i++) {
+                enrollmentCounts[i] += other.enrollmentCounts[i];
+            }
+            for (int i = 0; i < gradeCounts.length; i++) {
+                gradeCounts[i] += other.gradeCounts[i];
+            }
+            return this;
+        }
+    }
+
+    private static class ScoreTotals {
+        private final double[] scoreSums;
+        private final int[] scoreCounts;
+        private final double[] bandSums = new double[SCORE_BANDS.length];
+        private final int[] bandCounts = new int[SCORE_BANDS.length];
+
+        private ScoreTotals(int courseCount) {
+            this.scoreSums = new double[courseCount];
+            this.scoreCounts = new int[courseCount];
+        }
+
+        private ScoreTotals merge(ScoreTotals other) {
+            for (int i = 0; i < scoreSums.length; i++) {
+                scoreSums[i] += other.scoreSums[i];
+                scoreCounts[i] += other.scoreCounts[i];
+            }
+            for (int i = 0; i < bandSums.length; i++) {
+                bandSums[i] += other.bandSums[i];
+                bandCounts[i] += other.bandCounts[i];
+            }
+            return this;
+        }
+    }
+
+    private static class EnrollmentReduction extends RecursiveTask<EnrollmentTotals> {
+        private final AnalyticsSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private EnrollmentReduction(AnalyticsSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected EnrollmentTotals compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                EnrollmentReduction left = new EnrollmentReduction(snapshot, from, middle);
+                left.fork();
+                EnrollmentTotals right = new EnrollmentReduction(snapshot, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            int gradeCount = Grade.count();
+            EnrollmentTotals totals = new EnrollmentTotals(snapshot.courseIds.length);
+            for (int i = from; i < to; i++) {
+                int course = snapshot.enrollmentCourse[i];
+                totals.enrollmentCounts[course]++;
+                byte grade = snapshot.enrollmentGrade[i];
+                if (grade >= 0) {
+                    totals.gradeCounts[course * gradeCount + grade]++;
+                }
+            }
+            return totals;
+        }
+    }
+
+    private static class ScoreReduction extends RecursiveTask<ScoreTotals> {
+        private final AnalyticsSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private ScoreReduction(AnalyticsSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreTotals compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ScoreReduction left = new ScoreReduction(snapshot, from, middle);
+                left.fork();
+                ScoreTotals right = new ScoreReduction(snapshot, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            ScoreTotals totals = new ScoreTotals(snapshot.courseIds.length);
+            for (int i = from; i < to; i++) {
+                float value = snapshot.score[i];
+                totals.scoreSums[snapshot.scoreCourse[i]] += value;
+                totals.scoreCounts[snapshot.scoreCourse[i]]++;
+                int band = scoreBand(value);
+                totals.bandSums[band] += value;
+                totals.bandCounts[band]++;
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package Utilities;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds the current AnalyticsSnapshot and replaces it in the background.
+ * A refresh runs every analytics.snapshot.refreshIntervalMinutes and after any committed data change;
+ * requests that arrive while a refresh is queued are folded into it. Refreshes start at least
+ * analytics.snapshot.minRefreshIntervalSeconds apart, so steady writes cause one full reload per interval
+ * rather than one per write. Readers keep using the previous snapshot until the new one is ready.
+ */
+public class AnalyticsSnapshotService {
+    private static final Logger LOGGER = Logger.getLogger(AnalyticsSnapshotService.class.getName());
+
+    private static final long REFRESH_INTERVAL_MINUTES = Long.getLong("analytics.snapshot.refreshIntervalMinutes", 15L);
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong("analytics.snapshot.minRefreshIntervalSeconds", 60L));
+
+    private static AnalyticsSnapshotService instance;
+
+    private final DatabaseConnectionManager dbManager;
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private volatile AnalyticsSnapshot current;
+    private volatile long lastRefreshStartedAt;
+
+    private AnalyticsSnapshotService() {
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "analytics-snapshot-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (REFRESH_INTERVAL_MINUTES > 0) {
+            refresher.scheduleWithFixedDelay(this::requestRefresh,
+                    REFRESH_INTERVAL_MINUTES, REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+        DataChangeNotifier.getInstance().addListener(change -> requestRefresh());
+    }
+
+    public static synchronized AnalyticsSnapshotService getInstance() {
+        if (instance == null) {
+            instance = new AnalyticsSnapshotService();
+        }
+        return instance;
+    }
+
+    /**
+     * Blocks for a full load when no snapshot exists yet, so call it off the event dispatch thread.
+     * @return The latest snapshot, loading the first one on the calling thread if none exists yet
+     */
+    public AnalyticsSnapshot getSnapshot() {
+        AnalyticsSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (current == null) {
+                lastRefreshStartedAt = System.currentTimeMillis();
+                current = AnalyticsSnapshot.load(dbManager);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Queues a background reload unless one is already queued. The reload is delayed until the minimum
+     * interval has passed since the previous one started.
+     */
+    public void requestRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            long delay = Math.max(0, lastRefreshStartedAt + MIN_REFRESH_INTERVAL_MILLIS - System.currentTimeMillis());
+            refresher.schedule(() -> {
+                refreshQueued.set(false);
+                lastRefreshStartedAt = System.currentTimeMillis();
+                try {
+                    AnalyticsSnapshot snapshot = AnalyticsSnapshot.load(dbManager);
+                    current = snapshot;
+                    LOGGER.fine(String.format("Analytics snapshot refreshed: %d courses, %d enrollments, %d scores in %d ms",
+                            snapshot.getCourseCount(), snapshot.getEnrollmentCount(),
+                            snapshot.getGradedSubmissionCount(), snapshot.getLoadMillis()));
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Analytics snapshot refresh failed", e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package Utilities;
+
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs blocking data access off the Swing event dispatch thread.
+ * Uses a virtual-thread-per-task executor when the runtime provides one and caps the number of
+ * tasks running at once so background loads cannot exhaust the connection pool.
+ */
+public class AsyncDataService {
+    private static final Logger LOGGER = Logger.getLogger(AsyncDataService.class.getName());
+
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("async.maxInFlight", 8);
+
+    private static AsyncDataService instance;
+
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+
+    private AsyncDataService(int maxInFlight) {
+        this.inFlight = new Semaphore(maxInFlight);
+        this.executor = createExecutor(maxInFlight);
+    }
+
+    public static synchronized AsyncDataService getInstance() {
+        if (instance == null) {
+            instance = new AsyncDataService(MAX_IN_FLIGHT);
+        }
+        return instance;
+    }
+
+    /**
+     * Runs the task in the background.
+     * @return Future completed with the task result, or exceptionally with the task's failure
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                inFlight.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the task in the background and delivers its outcome on the event dispatch thread.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        CompletableFuture<T> future = submit(task);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = unwrap(error);
+                LOGGER.log(Level.WARNING, "Background data load failed", cause);
+                onFailure.accept(cause);
+            }
+        }));
+        return future;
+    }
+
+    public int getAvailableSlots() {
+        return inFlight.availablePermits();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Strips future wrappers, and the RuntimeException wrappers used by DatabaseConnectionManager,
+     * so error dialogs can show the underlying database message.
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        for (Throwable t = current; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                return t;
+            }
+        }
+        return current;
+    }
+
+    private static ExecutorService createExecutor(int maxInFlight) {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Virtual threads unavailable, using a platform thread pool");
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxInFlight, maxInFlight,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "async-data-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -1,117 +1,195 @@
 package Utilities;
 
 import java.sql.*;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class AuthenticationManager {
     private static final Logger LOGGER = Logger.getLogger(AuthenticationManager.class.getName());
 
+    private static final String ACCOUNT_LOOKUP_SQL = buildAccountLookupSql();
+
+    private final PasswordHasher passwordHasher;
+
+    public AuthenticationManager() {
+        this(Pbkdf2PasswordHasher.getInstance());
+    }
+
+    public AuthenticationManager(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+    }
+
     public String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            LOGGER.log(Level.SEVERE, "Password hashing error", e);
-            throw new RuntimeException("Password hashing failed", e);
-        }
+        return passwordHasher.hash(password);
     }
 
     public boolean authenticate(String email, String password) {
-        String[] userTypes = {"student", "instructor", "administrator"};
+        Session session = login(email, password);
+        if (session == null) {
+            return false;
+        }
+        UserSession.getInstance().attach(session);
+        return true;
+    }
+
+    /**
+     * Verifies the credentials and registers a new session without touching the desktop UserSession,
+     * so one JVM can serve many signed-in users.
+     * @return The new session, or null if the credentials are wrong
+     */
+    public Session login(String email, String password) {
+        Account account = findAccount(email, password);
+        logLoginAttempt(email, account != null);
+        if (account == null) {
+            return null;
+        }
+        return SessionRegistry.getInstance().create(account.userId, account.email, account.type.name());
+    }
+
+    public void logout() {
+        // Audit from the attached session itself, so the username is known even if the registry dropped it
+        Session session = UserSession.getInstance().clearSession();
+        if (session != null) {
+            logLogoutAttempt(session.getUsername());
+        }
+    }
+
+    public void logout(String token) {
+        Session session = SessionRegistry.getInstance().invalidate(token);
+        if (session != null) {
+            logLogoutAttempt(session.getUsername());
+        }
+    }
 
-        for (String userType : userTypes) {
-            String sql = "SELECT " + userType.toLowerCase() + "Id AS userId, email, passwordHash FROM " + userType + " WHERE email = ?";
+    private void logLoginAttempt(String username, boolean success) {
+        LoginAuditWriter.getInstance().recordLogin(username, success);
+    }
 
-            try (Connection conn = DatabaseConnectionManager.getInstance().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private void logLogoutAttempt(String username) {
+        LoginAuditWriter.getInstance().recordLogout(username);
+    }
+
+    public boolean changePassword(String email, String oldPassword, String newPassword) {
+        Account account = findAccount(email, oldPassword);
+        logLoginAttempt(email, account != null);
+        if (account == null) {
+            return false;
+        }
 
-                stmt.setString(1, email);
+        String sql = "UPDATE " + account.type.table + " SET passwordHash = ? WHERE " + account.type.idColumn + " = ?";
+        try {
+            return DatabaseConnectionManager.getInstance().update(sql, hashPassword(newPassword), account.userId) > 0;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Password change error for " + account.type.table, e);
+            return false;
+        }
+    }
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String storedPasswordHash = rs.getString("passwordHash");
-                        String hashedInputPassword = hashPassword(password);
+    /**
+     * Looks the email up in every account table with a single UNION ALL query.
+     * Tables are checked in student, instructor, administrator order, as before.
+     * Candidate rows are read and the connection returned before any hash is verified, since
+     * verification is deliberately slow and should not hold a pool slot.
+     * @return Account whose stored hash matches the password, or null
+     */
+    private Account findAccount(String email, String password) {
+        List<Candidate> candidates = new ArrayList<>();
+        try (Connection conn = DatabaseConnectionManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ACCOUNT_LOOKUP_SQL)) {
+
+            for (int i = 1; i <= AccountType.values().length; i++) {
+                stmt.setString(i, email);
+            }
 
-                        if (storedPasswordHash.equals(hashedInputPassword)) {
-                            UserSession.getInstance().createSession(
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    candidates.add(new Candidate(
+                            new Account(
+                                    AccountType.values()[rs.getInt("accountType")],
                                     rs.getInt("userId"),
-                                    rs.getString("email"),
-                                    userType.toUpperCase()
-                            );
-
-                            logLoginAttempt(email, true);
-                            return true;
-                        }
-                    }
+                                    rs.getString("email")
+                            ),
+                            rs.getString("passwordHash")
+                    ));
                 }
-            } catch (SQLException e) {
-                LOGGER.log(Level.SEVERE, "Authentication error", e);
-                throw new RuntimeException("Authentication process failed", e);
             }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Authentication error", e);
+            throw new RuntimeException("Authentication process failed", e);
         }
 
-        logLoginAttempt(email, false);
-        return false;
+        for (Candidate candidate : candidates) {
+            if (passwordHasher.verify(password, candidate.storedHash)) {
+                if (passwordHasher.needsRehash(candidate.storedHash)) {
+                    rehashInBackground(candidate.account, password);
+                }
+                return candidate.account;
+            }
+        }
+        return null;
     }
 
-    public void logout() {
-        logLogoutAttempt(UserSession.getInstance().getUsername());
-
-        UserSession.getInstance().clearSession();
+    /**
+     * Replaces an outdated hash (legacy SHA-256 or a lower iteration count) after a successful login.
+     */
+    private void rehashInBackground(Account account, String password) {
+        String sql = "UPDATE " + account.type.table + " SET passwordHash = ? WHERE " + account.type.idColumn + " = ?";
+        AsyncDataService.getInstance()
+                .submit(() -> DatabaseConnectionManager.getInstance().update(sql, hashPassword(password), account.userId))
+                .exceptionally(e -> {
+                    LOGGER.log(Level.WARNING, "Failed to upgrade password hash for " + account.email, e);
+                    return 0;
+                });
     }
 
-    private void logLoginAttempt(String username, boolean success) {
-        String sql = "INSERT INTO LoginAudit (username, login_time, success) VALUES (?, NOW(), ?)";
-
-        try {
-            DatabaseConnectionManager.getInstance().executeUpdate(
-                    sql, username, success
-            );
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to log login attempt", e);
+    private static String buildAccountLookupSql() {
+        StringBuilder sql = new StringBuilder();
+        for (AccountType type : AccountType.values()) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT ").append(type.ordinal()).append(" AS accountType, ")
+                    .append(type.idColumn).append(" AS userId, email, passwordHash FROM ")
+                    .append(type.table).append(" WHERE email = ?");
         }
+        return sql.append(" ORDER BY accountType").toString();
     }
 
-    private void logLogoutAttempt(String username) {
-        String sql = "UPDATE LoginAudit SET logout_time = NOW() WHERE username = ? AND logout_time IS NULL";
+    private enum AccountType {
+        STUDENT("student", "studentId"),
+        INSTRUCTOR("instructor", "instructorId"),
+        ADMINISTRATOR("administrator", "administratorId");
 
-        try {
-            DatabaseConnectionManager.getInstance().executeUpdate(
-                    sql, username
-            );
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to log logout attempt", e);
+        private final String table;
+        private final String idColumn;
+
+        AccountType(String table, String idColumn) {
+            this.table = table;
+            this.idColumn = idColumn;
         }
     }
 
-    public boolean changePassword(String email, String oldPassword, String newPassword) {
-        if (!authenticate(email, oldPassword)) {
-            return false;
+    private static class Account {
+        private final AccountType type;
+        private final int userId;
+        private final String email;
+
+        private Account(AccountType type, int userId, String email) {
+            this.type = type;
+            this.userId = userId;
+            this.email = email;
         }
+    }
 
-        for (String userType : new String[]{"student", "instructor", "administrator"}) {
-            String sql = "UPDATE " + userType + " SET passwordHash = ? WHERE email = ?";
-            String hashedNewPassword = hashPassword(newPassword);
+    private static class Candidate {
+        private final Account account;
+        private final String storedHash;
 
-            try {
-                int updatedRows = DatabaseConnectionManager.getInstance().executeUpdate(
-                        sql, hashedNewPassword, email
-                );
-                if (updatedRows > 0) {
-                    return true;
-                }
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Password change error for " + userType, e);
-            }
+        private Candidate(Account account, String storedHash) {
+            this.account = account;
+            this.storedHash = storedHash;
         }
-        return false;
     }
-}
\ No newline at end of file
+}
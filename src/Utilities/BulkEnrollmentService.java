@@ -0,0 +1,270 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Enrolls many students into many courses at once. Existing enrollments are loaded once into a hash
+ * set so pairs that are already enrolled are skipped without a query each, and the new rows are
+ * inserted per course in batched transactions that also update the course summaries. Optionally,
+ * already-published assignments are distributed to the new enrollees with one INSERT ... SELECT per batch.
+ * <p>
+ * The duplicate check is not a lock: an enrollment added by someone else between the check and the
+ * insert is not detected, as the enrollment table has no unique key on student and course.
+ */
+public class BulkEnrollmentService {
+    private static final Logger LOGGER = Logger.getLogger(BulkEnrollmentService.class.getName());
+
+    private static final int BATCH_SIZE = Integer.getInteger("enrollment.bulk.batchSize", 500);
+    private static final int IN_LIST_SIZE = 1_000;
+
+    private static final String EXISTING_ENROLLMENTS_SQL =
+            "SELECT studentId, courseId FROM enrollment WHERE courseId IN (%s)";
+    private static final String EXISTING_STUDENTS_SQL = "SELECT studentId FROM student WHERE studentId IN (%s)";
+    private static final String EXISTING_COURSES_SQL = "SELECT courseId FROM course WHERE courseId IN (%s)";
+    private static final String FILTER_STUDENTS_SQL =
+            "SELECT studentId FROM student WHERE (studentName LIKE ? OR email LIKE ?) %s ORDER BY studentId";
+    private static final String MAX_ENROLLMENT_ID_SQL = "SELECT COALESCE(MAX(enrollmentId), 0) FROM enrollment";
+    private static final String INSERT_ENROLLMENT_SQL =
+            "INSERT INTO enrollment (studentId, courseId, startDate, endDate) VALUES (?, ?, ?, ?)";
+    private static final String DISTRIBUTE_PUBLISHED_SQL =
+            "INSERT INTO assignmentdistribution (assignmentId, enrollmentId) " +
+            "SELECT a.assignmentId, e.enrollmentId FROM enrollment e " +
+            "JOIN assignment a ON a.courseId = e.courseId AND a.isPublished = 1 " +
+            "WHERE e.courseId = ? AND e.enrollmentId > ? AND NOT EXISTS (" +
+            "SELECT 1 FROM assignmentdistribution d " +
+            "WHERE d.assignmentId = a.assignmentId AND d.enrollmentId = e.enrollmentId)";
+
+    private static BulkEnrollmentService instance;
+
+    private final DatabaseConnectionManager dbManager;
+    private final CourseSummaryService courseSummaryService;
+
+    private BulkEnrollmentService() {
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        this.courseSummaryService = CourseSummaryService.getInstance();
+    }
+
+    public static synchronized BulkEnrollmentService getInstance() {
+        if (instance == null) {
+            instance = new BulkEnrollmentService();
+        }
+        return instance;
+    }
+
+    /**
+     * @param filter Text matched anywhere in the student's name or email; blank matches everyone
+     * @return Matching student ids in ascending order
+     */
+    public List<Integer> findStudentIds(String filter, boolean activeOnly) {
+        String pattern = "%" + (filter == null ? "" : filter.trim()) + "%";
+        String sql = String.format(FILTER_STUDENTS_SQL, activeOnly ? "AND isActive = 1" : "");
+        return dbManager.query(sql, rs -> rs.getInt(1), pattern, pattern);
+    }
+
+    /**
+     * Enrolls every student into every course, skipping pairs that are already enrolled and ids that
+     * do not exist. Each batch of a course commits on its own, so a failure leaves earlier batches in place.
+     * @param distributePublished Also hand the courses' published assignments to the new enrollees
+     * @throws SQLException If a batch fails; earlier batches stay committed
+     */
+    public Result enroll(Collection<Integer> studentIds, Collection<Integer> courseIds, Date startDate, Date endDate,
+                         boolean distributePublished) throws SQLException {
+        long startedAt = System.nanoTime();
+        Set<Integer> students = new LinkedHashSet<>(studentIds);
+        Set<Integer> courses = new LinkedHashSet<>(courseIds);
+
+        Set<Integer> knownStudents = findExisting(EXISTING_STUDENTS_SQL, students);
+        Set<Integer> knownCourses = findExisting(EXISTING_COURSES_SQL, courses);
+        List<Integer> unknownStudents = new ArrayList<>(students);
+        unknownStudents.removeAll(knownStudents);
+        List<Integer> unknownCourses = new ArrayList<>(courses);
+        unknownCourses.removeAll(knownCourses);
+        students.retainAll(knownStudents);
+        courses.retainAll(knownCourses);
+
+        Set<Long> enrolled = loadEnrollmentPairs(courses);
+
+        int enrolledCount = 0;
+        int duplicateCount = 0;
+        int distributedCount = 0;
+        try {
+            for (int courseId : courses) {
+                List<Integer> newStudents = new ArrayList<>();
+                for (int studentId : students) {
+                    if (enrolled.contains(pairKey(studentId, courseId))) {
+                        duplicateCount++;
+                    } else {
+                        newStudents.add(studentId);
+                    }
+                }
+
+                for (int from = 0; from < newStudents.size(); from += BATCH_SIZE) {
+                    List<Integer> batch = newStudents.subList(from, Math.min(from + BATCH_SIZE, newStudents.size()));
+                    distributedCount += dbManager.inTransaction(
+                            conn -> insertBatch(conn, courseId, batch, startDate, endDate, distributePublished));
+                    enrolledCount += batch.size();
+                }
+            }
+        } finally {
+            if (enrolledCount > 0) {
+                DataChangeNotifier.getInstance().fire(DataChange.ENROLLMENT);
+            }
+        }
+
+        Result result = new Result(enrolledCount, duplicateCount, distributedCount, unknownStudents, unknownCourses,
+                System.nanoTime() - startedAt);
+        LOGGER.info("Bulk enrollment: " + result);
+        return result;
+    }
+
+    /**
+     * @return Number of assignment distributions created for the batch
+     */
+    private int insertBatch(Connection conn, int courseId, List<Integer> studentIds, Date startDate, Date endDate,
+                            boolean distributePublished) throws SQLException {
+        // New rows get ids above this watermark; the NOT EXISTS guard keeps the distribution idempotent
+        // if another transaction's enrollments also land above it
+        int watermark = 0;
+        if (distributePublished) {
+            try (PreparedStatement pstmt = conn.prepareStatement(MAX_ENROLLMENT_ID_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    watermark = rs.getInt(1);
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ENROLLMENT_SQL)) {
+            for (int studentId : studentIds) {
+                pstmt.setInt(1, studentId);
+                pstmt.setInt(2, courseId);
+                pstmt.setDate(3, startDate);
+                pstmt.setDate(4, endDate);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        courseSummaryService.recordEnrollments(conn, courseId, studentIds.size());
+
+        if (!distributePublished) {
+            return 0;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(DISTRIBUTE_PUBLISHED_SQL)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, watermark);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private Set<Long> loadEnrollmentPairs(Set<Integer> courseIds) throws SQLException {
+        Set<Long> pairs = new HashSet<>();
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : chunks(courseIds)) {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        String.format(EXISTING_ENROLLMENTS_SQL, placeholders(chunk.size())))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            pairs.add(pairKey(rs.getInt(1), rs.getInt(2)));
+                        }
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private Set<Integer> findExisting(String sqlTemplate, Set<Integer> ids) {
+        Set<Integer> existing = new HashSet<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            existing.addAll(dbManager.query(String.format(sqlTemplate, placeholders(chunk.size())),
+                    rs -> rs.getInt(1), chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_LIST_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + IN_LIST_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static long pairKey(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
+
+    public static class Result {
+        private final int enrolledCount;
+        private final int duplicateCount;
+        private final int distributedCount;
+        private final List<Integer> unknownStudentIds;
+        private final List<Integer> unknownCourseIds;
+        private final long elapsedNanos;
+
+        private Result(int enrolledCount, int duplicateCount, int distributedCount, List<Integer> unknownStudentIds,
+                       List<Integer> unknownCourseIds, long elapsedNanos) {
+            this.enrolledCount = enrolledCount;
+            this.duplicateCount = duplicateCount;
+            this.distributedCount = distributedCount;
+            this.unknownStudentIds = Collections.unmodifiableList(unknownStudentIds);
+            this.unknownCourseIds = Collections.unmodifiableList(unknownCourseIds);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getEnrolledCount() {
+            return enrolledCount;
+        }
+
+        /**
+         * @return Student and course pairs skipped because the student was already enrolled
+         */
+        public int getDuplicateCount() {
+            return duplicateCount;
+        }
+
+        public int getDistributedCount() {
+            return distributedCount;
+        }
+
+        public List<Integer> getUnknownStudentIds() {
+            return unknownStudentIds;
+        }
+
+        public List<Integer> getUnknownCourseIds() {
+            return unknownCourseIds;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("enrolled=%d duplicates=%d distributed=%d unknownStudents=%d unknownCourses=%d elapsed=%dms",
+                    enrolledCount, duplicateCount, distributedCount, unknownStudentIds.size(),
+                    unknownCourseIds.size(), getElapsedMillis());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package Utilities;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * CourseAnalytics decorator that caches each method's result for its own TTL.
+ * Concurrent callers of a method that is being loaded wait for that one load instead of starting
+ * their own. Entries are dropped when DataChangeNotifier reports a write they depend on.
+ * Returned maps and lists are shared between callers and must not be modified.
+ */
+public class CachingCourseAnalytics implements CourseAnalytics {
+    public static final String ENROLLMENT_STATISTICS = "generateEnrollmentStatistics";
+    public static final String GRADE_DISTRIBUTION = "generateGradeDistribution";
+    public static final String AVERAGE_GRADES_BY_COURSE = "getAverageGradesByCourse";
+
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("analytics.cache.ttlMillis", 60_000L);
+
+    private final CachedMethod<Map<String, Object>> enrollmentStatistics;
+    private final CachedMethod<Map<String, Object>> gradeDistribution;
+    private final CachedMethod<List<Map<String, Object>>> averageGradesByCourse;
+    private final CachedMethod<List<CourseEnrollmentStats>> courseEnrollmentStats;
+    private final CachedMethod<List<CourseGradeStats>> courseGradeStats;
+    private final CachedMethod<int[]> gradeHistogram;
+    private final Consumer<DataChange> changeListener = this::onDataChange;
+
+    /**
+     * Uses analytics.cache.&lt;method&gt;.ttlMillis for each method, falling back to analytics.cache.ttlMillis.
+     */
+    public CachingCourseAnalytics(CourseAnalytics delegate) {
+        this(delegate,
+                Long.getLong("analytics.cache." + ENROLLMENT_STATISTICS + ".ttlMillis", DEFAULT_TTL_MILLIS),
+                Long.getLong("analytics.cache." + GRADE_DISTRIBUTION + ".ttlMillis", DEFAULT_TTL_MILLIS),
+                Long.getLong("analytics.cache." + AVERAGE_GRADES_BY_COURSE + ".ttlMillis", DEFAULT_TTL_MILLIS));
+    }
+
+    public CachingCourseAnalytics(CourseAnalytics delegate, long enrollmentStatisticsTtlMillis,
+                                  long gradeDistributionTtlMillis, long averageGradesTtlMillis) {
+        this.enrollmentStatistics = new CachedMethod<>(ENROLLMENT_STATISTICS, enrollmentStatisticsTtlMillis,
+                () -> Collections.unmodifiableMap(delegate.generateEnrollmentStatistics()),
+                EnumSet.of(DataChange.ENROLLMENT, DataChange.COURSE));
+        this.gradeDistribution = new CachedMethod<>(GRADE_DISTRIBUTION, gradeDistributionTtlMillis,
+                () -> Collections.unmodifiableMap(delegate.generateGradeDistribution()),
+                EnumSet.of(DataChange.GRADE, DataChange.COURSE));
+        this.averageGradesByCourse = new CachedMethod<>(AVERAGE_GRADES_BY_COURSE, averageGradesTtlMillis,
+                () -> Collections.unmodifiableList(delegate.getAverageGradesByCourse()),
+                EnumSet.allOf(DataChange.class));
+
+        // Typed results share the TTL of the map method they back
+        this.courseEnrollmentStats = new CachedMethod<>("getCourseEnrollmentStats", enrollmentStatisticsTtlMillis,
+                () -> List.copyOf(delegate.getCourseEnrollmentStats()),
+                EnumSet.of(DataChange.ENROLLMENT, DataChange.COURSE));
+        this.gradeHistogram = new CachedMethod<>("getGradeHistogram", gradeDistributionTtlMillis,
+                delegate::getGradeHistogram,
+                EnumSet.of(DataChange.GRADE, DataChange.COURSE));
+        this.courseGradeStats = new CachedMethod<>("getCourseGradeStats", averageGradesTtlMillis,
+                () -> List.copyOf(delegate.getCourseGradeStats()),
+                EnumSet.allOf(DataChange.class));
+
+        DataChangeNotifier.getInstance().addListener(changeListener);
+    }
+
+    @Override
+    public Map<String, Object> generateEnrollmentStatistics() {
+        return enrollmentStatistics.get();
+    }
+
+    @Override
+    public Map<String, Object> generateGradeDistribution() {
+        return gradeDistribution.get();
+    }
+
+    @Override
+    public List<Map<String, Object>> getAverageGradesByCourse() {
+        return averageGradesByCourse.get();
+    }
+
+    @Override
+    public List<CourseEnrollmentStats> getCourseEnrollmentStats() {
+        return courseEnrollmentStats.get();
+    }
+
+    @Override
+    public List<CourseGradeStats> getCourseGradeStats() {
+        return courseGradeStats.get();
+    }
+
+    /**
+     * @return A copy of the cached histogram, so callers may modify it
+     */
+    @Override
+    public int[] getGradeHistogram() {
+        return gradeHistogram.get().clone();
+    }
+
+    public void invalidateAll() {
+        for (CachedMethod<?> method : methods()) {
+            method.invalidate();
+        }
+    }
+
+    /**
+     * @return Statistics for each cached method, keyed by method name
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (CachedMethod<?> method : methods()) {
+            stats.put(method.name, method.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Stops listening for data changes. The cache still works but will only expire by TTL.
+     */
+    public void close() {
+        DataChangeNotifier.getInstance().removeListener(changeListener);
+    }
+
+    private void onDataChange(DataChange change) {
+        for (CachedMethod<?> method : methods()) {
+            method.invalidateOn(change);
+        }
+    }
+
+    private List<CachedMethod<?>> methods() {
+        return List.of(enrollmentStatistics, gradeDistribution, averageGradesByCourse,
+                courseEnrollmentStats, courseGradeStats, gradeHistogram);
+    }
+
+    /**
+     * Point-in-time counters for one cached method. Calls that wait on another caller's load count as hits.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long failures;
+        private final long totalLoadNanos;
+        private final long lastLoadNanos;
+
+        private Stats(long hits, long misses, long failures, long totalLoadNanos, long lastLoadNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.failures = failures;
+            this.totalLoadNanos = totalLoadNanos;
+            this.lastLoadNanos = lastLoadNanos;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests > 0 ? (double) hits / requests : 0;
+        }
+
+        public double getAverageLoadMillis() {
+            return misses > 0 ? totalLoadNanos / 1_000_000.0 / misses : 0;
+        }
+
+        public long getLastLoadMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(lastLoadNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d failures=%d hitRate=%.2f avgLoad=%.1fms",
+                    hits, misses, failures, getHitRate(), getAverageLoadMillis());
+        }
+    }
+
+    private static class CachedMethod<T> {
+        private final String name;
+        private final long ttlNanos;
+        private final Supplier<T> loader;
+        private final Set<DataChange> dependsOn;
+        private final AtomicReference<Entry<T>> current = new AtomicReference<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalLoadNanos = new LongAdder();
+        private volatile long lastLoadNanos;
+
+        private CachedMethod(String name, long ttlMillis, Supplier<T> loader, Set<DataChange> dependsOn) {
+            this.name = name;
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            this.loader = loader;
+            this.dependsOn = dependsOn;
+        }
+
+        private T get() {
+            while (true) {
+                Entry<T> entry = current.get();
+                if (entry != null && !entry.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return await(entry);
+                }
+
+                Entry<T> fresh = new Entry<>();
+                if (current.compareAndSet(entry, fresh)) {
+                    misses.increment();
+                    load(fresh);
+                    return await(fresh);
+                }
+            }
+        }
+
+        private void load(Entry<T> entry) {
+            long startedAt = System.nanoTime();
+            try {
+                T value = loader.get();
+                long finishedAt = System.nanoTime();
+                recordLoad(finishedAt - startedAt);
+                entry.expiresAt = finishedAt + ttlNanos;
+                entry.future.complete(value);
+            } catch (RuntimeException | Error e) {
+                recordLoad(System.nanoTime() - startedAt);
+                failures.increment();
+                current.compareAndSet(entry, null);
+                entry.future.completeExceptionally(e);
+            }
+        }
+
+        private void recordLoad(long elapsedNanos) {
+            totalLoadNanos.add(elapsedNanos);
+            lastLoadNanos = elapsedNanos;
+        }
+
+        private T await(Entry<T> entry) {
+            try {
+                return entry.future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException("Failed to load " + name, cause);
+            }
+        }
+
+        private void invalidate() {
+            current.set(null);
+        }
+
+        private void invalidateOn(DataChange change) {
+            if (dependsOn.contains(change)) {
+                invalidate();
+            }
+        }
+
+        private Stats stats() {
+            return new Stats(hits.sum(), misses.sum(), failures.sum(), totalLoadNanos.sum(), lastLoadNanos);
+        }
+    }
+
+    private static class Entry<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // An entry being loaded never expires, so callers arriving mid-load share it
+        private volatile long expiresAt;
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package Utilities;
+
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Helpers for charts that stay on screen while their data changes. Updates are applied to the
+ * existing dataset with its change events paused, so the chart redraws once per update instead of
+ * once per value, and the plot, axes and panel are reused.
+ */
+public final class ChartDatasets {
+    public static final String OTHER = "Other";
+
+    private ChartDatasets() {
+    }
+
+    /**
+     * Keeps the largest entries, in descending order, and sums the rest into a single {@link #OTHER} entry
+     * so the result never has more than maxCategories entries. Ties keep their original order.
+     */
+    public static LinkedHashMap<String, Integer> topN(Map<String, Integer> counts, int maxCategories) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()));
+
+        LinkedHashMap<String, Integer> top = new LinkedHashMap<>();
+        boolean bucket = entries.size() > maxCategories;
+        int keep = bucket ? Math.max(0, maxCategories - 1) : entries.size();
+        int other = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (i < keep) {
+                top.put(entries.get(i).getKey(), entries.get(i).getValue());
+            } else {
+                other += entries.get(i).getValue();
+            }
+        }
+        if (bucket) {
+            top.merge(OTHER, other, Integer::sum);
+        }
+        return top;
+    }
+
+    /**
+     * Makes the dataset's single row hold exactly these values in this column order.
+     * @return Whether anything changed
+     */
+    public static boolean update(DefaultCategoryDataset dataset, Comparable<?> rowKey, Map<String, ? extends Number> values) {
+        List<?> columnKeys = dataset.getColumnKeys();
+        boolean sameColumns = dataset.getRowCount() <= 1 && columnKeys.equals(new ArrayList<>(values.keySet()));
+
+        if (sameColumns) {
+            List<String> changed = new ArrayList<>();
+            for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                if (!sameValue(dataset.getValue(rowKey, entry.getKey()), entry.getValue())) {
+                    changed.add(entry.getKey());
+                }
+            }
+            if (changed.isEmpty()) {
+                return false;
+            }
+            dataset.setNotify(false);
+            try {
+                for (String column : changed) {
+                    dataset.setValue(values.get(column), rowKey, column);
+                }
+            } finally {
+                dataset.setNotify(true);
+            }
+            return true;
+        }
+
+        // Column order changed (e.g. rankings shifted): rebuild, still as one change event
+        dataset.setNotify(false);
+        try {
+            dataset.clear();
+            for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                dataset.addValue(entry.getValue(), rowKey, entry.getKey());
+            }
+        } finally {
+            dataset.setNotify(true);
+        }
+        return true;
+    }
+
+    /**
+     * Makes the pie dataset hold exactly these values in this order.
+     * @return Whether anything changed
+     */
+    public static boolean update(DefaultPieDataset<String> dataset, Map<String, ? extends Number> values) {
+        if (dataset.getKeys().equals(new ArrayList<>(values.keySet()))) {
+            boolean changed = false;
+            for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                if (!sameValue(dataset.getValue(entry.getKey()), entry.getValue())) {
+                    changed = true;
+                    break;
+                }
+            }
+            if (!changed) {
+                return false;
+            }
+        }
+
+        dataset.setNotify(false);
+        try {
+            for (String key : new ArrayList<>(dataset.getKeys())) {
+                if (!values.containsKey(key)) {
+                    dataset.remove(key);
+                }
+            }
+            int index = 0;
+            for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                dataset.insertValue(index++, entry.getKey(), entry.getValue());
+            }
+        } finally {
+            dataset.setNotify(true);
+        }
+        return true;
+    }
+
+    private static boolean sameValue(Number current, Number wanted) {
+        if (current == null || wanted == null) {
+            return Objects.equals(current, wanted);
+        }
+        return current.doubleValue() == wanted.doubleValue();
+    }
+}
@@ -0,0 +1,214 @@
+package Utilities;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Renders chart packs to PNG files without a display: one pack for the whole university, one per
+ * instructor department and one per instructor. Every chart is drawn from the same AnalyticsSnapshot,
+ * and each chart is built and written by its own task on a fixed worker pool, so charts never share
+ * a dataset. Run with java.awt.headless=true on machines without a display.
+ */
+public class ChartPackRenderer {
+    private static final Logger LOGGER = Logger.getLogger(ChartPackRenderer.class.getName());
+
+    private static final String UNASSIGNED = "Unassigned";
+
+    private final AnalyticsSnapshot snapshot;
+    private final int threads;
+    private final int width;
+    private final int height;
+
+    public ChartPackRenderer(AnalyticsSnapshot snapshot, int threads, int width, int height) {
+        this.snapshot = snapshot;
+        this.threads = threads;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Writes {@code all/}, {@code department/<name>/} and {@code instructor/<name>-<id>/} directories of charts
+     * under the output directory. A chart that fails is logged and counted; the others are still written.
+     */
+    public Result render(Path outputDir) throws IOException {
+        long startedAt = System.nanoTime();
+        List<ChartJob> jobs = new ArrayList<>();
+
+        List<CourseEnrollmentStats> enrollments = snapshot.getCourseEnrollmentStats();
+        List<CourseGradeStats> grades = snapshot.getCourseGradeStats();
+        // Course ids are kept as sets, since each group filters every course against them
+        Set<Integer> allCourseIds = new HashSet<>();
+        Map<String, Set<Integer>> byDepartment = new LinkedHashMap<>();
+        Map<Integer, Set<Integer>> byInstructor = new LinkedHashMap<>();
+        Map<Integer, String> instructorNames = new HashMap<>();
+        for (CourseEnrollmentStats course : enrollments) {
+            allCourseIds.add(course.courseId());
+            String department = snapshot.getDepartment(course.courseId());
+            byDepartment.computeIfAbsent(department != null ? department : UNASSIGNED, k -> new HashSet<>())
+                    .add(course.courseId());
+            // Grouped by id, since two instructors can share a name
+            Integer instructorId = snapshot.getInstructorId(course.courseId());
+            byInstructor.computeIfAbsent(instructorId, k -> new HashSet<>()).add(course.courseId());
+            if (instructorId != null && course.instructorName() != null) {
+                instructorNames.putIfAbsent(instructorId, course.instructorName());
+            }
+        }
+        addPack(jobs, outputDir.resolve("all"), "All Courses", allCourseIds, enrollments, grades);
+
+        // Different names can slug to the same directory; a shared path would have two tasks writing one file
+        Set<String> departmentDirs = new HashSet<>();
+        for (Map.Entry<String, Set<Integer>> group : byDepartment.entrySet()) {
+            String dir = slug(group.getKey());
+            for (int n = 2; !departmentDirs.add(dir); n++) {
+                dir = slug(group.getKey()) + "-" + n;
+            }
+            addPack(jobs, outputDir.resolve("department").resolve(dir), group.getKey(), group.getValue(),
+                    filter(enrollments, group.getValue()), filterGrades(grades, group.getValue()));
+        }
+        for (Map.Entry<Integer, Set<Integer>> group : byInstructor.entrySet()) {
+            Integer instructorId = group.getKey();
+            String name = instructorId == null ? UNASSIGNED : instructorNames.getOrDefault(instructorId, "Instructor");
+            String dir = instructorId == null ? slug(UNASSIGNED) : slug(name) + "-" + instructorId;
+            addPack(jobs, outputDir.resolve("instructor").resolve(dir), name, group.getValue(),
+                    filter(enrollments, group.getValue()), filterGrades(grades, group.getValue()));
+        }
+
+        for (ChartJob job : jobs) {
+            Files.createDirectories(job.file.getParent());
+        }
+
+        AtomicInteger written = new AtomicInteger();
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(jobs.size());
+            for (ChartJob job : jobs) {
+                futures.add(workers.submit(() -> {
+                    ChartUtils.saveChartAsPNG(job.file.toFile(), job.build(), width, height);
+                    written.incrementAndGet();
+                    return null;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    LOGGER.log(Level.WARNING, "Failed to render " + jobs.get(i).file, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rendering charts", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Result result = new Result(written.get(), failed, System.nanoTime() - startedAt);
+        LOGGER.info("Rendered chart pack to " + outputDir + ": " + result);
+        return result;
+    }
+
+    private void addPack(List<ChartJob> jobs, Path dir, String groupName, Set<Integer> courseIds,
+                         List<CourseEnrollmentStats> enrollments, List<CourseGradeStats> grades) {
+        jobs.add(new ChartJob(dir.resolve("enrollments.png"), () -> AnalyticsCharts.createEnrollmentBarChart(
+                "Course Enrollments - " + groupName, AnalyticsCharts.enrollmentDataset(enrollments))));
+        jobs.add(new ChartJob(dir.resolve("grade-distribution.png"), () -> AnalyticsCharts.createGradePieChart(
+                "Grade Distribution - " + groupName,
+                AnalyticsCharts.gradeDataset(snapshot.getGradeHistogram(courseIds::contains)))));
+        jobs.add(new ChartJob(dir.resolve("average-gpa.png"), () -> AnalyticsCharts.createAverageGradePointsBarChart(
+                "Average GPA - " + groupName, AnalyticsCharts.averageGradePointsDataset(grades))));
+    }
+
+    private static List<CourseEnrollmentStats> filter(List<CourseEnrollmentStats> courses, Set<Integer> courseIds) {
+        List<CourseEnrollmentStats> filtered = new ArrayList<>();
+        for (CourseEnrollmentStats course : courses) {
+            if (courseIds.contains(course.courseId())) {
+                filtered.add(course);
+            }
+        }
+        return filtered;
+    }
+
+    private static List<CourseGradeStats> filterGrades(List<CourseGradeStats> courses, Set<Integer> courseIds) {
+        List<CourseGradeStats> filtered = new ArrayList<>();
+        for (CourseGradeStats course : courses) {
+            if (courseIds.contains(course.courseId())) {
+                filtered.add(course);
+            }
+        }
+        return filtered;
+    }
+
+    private static String slug(String name) {
+        String slug = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        return slug.isEmpty() ? "unnamed" : slug;
+    }
+
+    private interface ChartBuilder {
+        JFreeChart build();
+    }
+
+    private static class ChartJob {
+        private final Path file;
+        private final ChartBuilder builder;
+
+        private ChartJob(Path file, ChartBuilder builder) {
+            this.file = file;
+            this.builder = builder;
+        }
+
+        private JFreeChart build() {
+            return builder.build();
+        }
+    }
+
+    public static class Result {
+        private final int chartsWritten;
+        private final int chartsFailed;
+        private final long elapsedNanos;
+
+        private Result(int chartsWritten, int chartsFailed, long elapsedNanos) {
+            this.chartsWritten = chartsWritten;
+            this.chartsFailed = chartsFailed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getChartsWritten() {
+            return chartsWritten;
+        }
+
+        public int getChartsFailed() {
+            return chartsFailed;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("written=%d failed=%d elapsed=%dms", chartsWritten, chartsFailed, getElapsedMillis());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package Utilities;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of physical JDBC connections.
+ * Borrowed connections are proxies; closing one hands the physical connection back to the pool.
+ */
+public class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final StatementLeakDetector leakDetector;
+    private final StatementMetrics statementMetrics;
+    private final SlowQueryLog slowQueryLog;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String username, String password, int maxPoolSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+                          int validationTimeoutSeconds, int statementCacheSize,
+                          StatementLeakDetector leakDetector, StatementMetrics statementMetrics,
+                          SlowQueryLog slowQueryLog) {
+        if (maxPoolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.leakDetector = leakDetector;
+        this.statementMetrics = statementMetrics;
+        this.slowQueryLog = slowQueryLog;
+        this.permits = new Semaphore(maxPoolSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::evictIdleConnections,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout when the pool is exhausted.
+     * @return Connection proxy that returns itself to the pool on close()
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + borrowTimeoutMillis + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                pooled.closePhysical();
+            }
+            return new PooledConnection(DriverManager.getConnection(url, username, password)).lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (now - pooled.createdAt >= maxLifetimeMillis) {
+            return false;
+        }
+        if (now - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Connection validation failed", e);
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            if (closed || pooled.physical.isClosed()
+                    || System.currentTimeMillis() - pooled.createdAt >= maxLifetimeMillis) {
+                pooled.closePhysical();
+                return;
+            }
+
+            pooled.reset();
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding connection that could not be reset", e);
+            pooled.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idleConnections) {
+            boolean expired = now - pooled.createdAt >= maxLifetimeMillis
+                    || now - pooled.lastReturnedAt >= idleTimeoutMillis;
+            if (expired && idleConnections.remove(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private final long createdAt;
+        private volatile long lastReturnedAt;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new StatementCache(physical, statementCacheSize);
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this)
+            );
+        }
+
+        private void reset() throws SQLException {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+        }
+
+        private void closePhysical() {
+            statementCache.closeAll();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+            }
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Statement proxies compare by identity, so closed ones can be removed cheaply
+        private final Set<Statement> openStatements = new HashSet<>();
+        private boolean leaseClosed;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closeLease();
+                    return null;
+                case "isClosed":
+                    return leaseClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (leaseClosed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                String sql = (String) args[0];
+                PreparedStatement cached = pooled.statementCache.acquire(sql);
+                return track(StatementHandler.wrap(cached, sql,
+                        (statement, target) -> {
+                            untrack(statement);
+                            pooled.statementCache.release(sql, (PreparedStatement) target);
+                        },
+                        leakDetector, statementMetrics, slowQueryLog));
+            }
+
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return track(StatementHandler.wrap((Statement) result, sql,
+                        (statement, target) -> {
+                            untrack(statement);
+                            target.close();
+                        },
+                        leakDetector, statementMetrics, slowQueryLog));
+            }
+            return result;
+        }
+
+        private synchronized Statement track(Statement statement) {
+            openStatements.add(statement);
+            return statement;
+        }
+
+        private synchronized void untrack(Statement statement) {
+            openStatements.remove(statement);
+        }
+
+        private synchronized void closeLease() {
+            if (leaseClosed) {
+                return;
+            }
+            leaseClosed = true;
+
+            // Closing a statement untracks it, so iterate over a copy
+            for (Statement statement : new ArrayList<>(openStatements)) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Error closing statement on connection return", e);
+                }
+            }
+            openStatements.clear();
+
+            release(pooled);
+        }
+    }
+}
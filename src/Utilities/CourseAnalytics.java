@@ -21,4 +21,22 @@ public interface CourseAnalytics {
      * @return List of Maps containing course-wise grade information
      */
     List<Map<String, Object>> getAverageGradesByCourse();
+
+    /**
+     * Retrieves the enrollment count of every course
+     * @return One entry per course
+     */
+    List<CourseEnrollmentStats> getCourseEnrollmentStats();
+
+    /**
+     * Retrieves grade results for every course
+     * @return One entry per course
+     */
+    List<CourseGradeStats> getCourseGradeStats();
+
+    /**
+     * Counts enrollments per letter grade across all courses
+     * @return Counts indexed by Grade ordinal
+     */
+    int[] getGradeHistogram();
 }
\ No newline at end of file
@@ -6,32 +6,54 @@ import java.util.stream.Collectors;
 
 public class CourseAnalyticsImpl implements CourseAnalytics {
     private DatabaseConnectionManager dbManager;
+    private CourseSummaryService courseSummaryService;
+    private AnalyticsSnapshotService snapshotService;
 
     public CourseAnalyticsImpl() {
         this.dbManager = DatabaseConnectionManager.getInstance();
+        this.courseSummaryService = CourseSummaryService.getInstance();
+    }
+
+    /**
+     * Serves the course results from the in-memory snapshot instead of querying per call.
+     */
+    public CourseAnalyticsImpl(AnalyticsSnapshotService snapshotService) {
+        this();
+        this.snapshotService = snapshotService;
+    }
+
+    @Override
+    public List<CourseEnrollmentStats> getCourseEnrollmentStats() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getCourseEnrollmentStats()
+                : courseSummaryService.getCourseEnrollmentStats();
+    }
+
+    @Override
+    public List<CourseGradeStats> getCourseGradeStats() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getCourseGradeStats()
+                : courseSummaryService.getCourseGradeStats();
+    }
+
+    @Override
+    public int[] getGradeHistogram() {
+        return snapshotService != null
+                ? snapshotService.getSnapshot().getGradeHistogram()
+                : courseSummaryService.getGradeHistogram();
     }
 
     @Override
     public Map<String, Object> generateEnrollmentStatistics() {
         Map<String, Object> enrollmentStats = new HashMap<>();
-        try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT c.courseName, COUNT(e.enrollmentId) as total_enrollments " +
-                             "FROM course c " +
-                             "LEFT JOIN enrollment e ON c.courseId = e.courseId " +
-                             "GROUP BY c.courseId, c.courseName"
-             )) {
-
+        try {
             Map<String, Integer> courseEnrollments = new HashMap<>();
-            while (rs.next()) {
-                String courseName = rs.getString("courseName");
-                int enrollments = rs.getInt("total_enrollments");
-                courseEnrollments.put(courseName, enrollments);
+            for (CourseEnrollmentStats course : getCourseEnrollmentStats()) {
+                courseEnrollments.put(course.courseName(), course.enrollmentCount());
             }
 
             enrollmentStats.put("courseEnrollments", courseEnrollments);
-        } catch (SQLException e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
         }
         return enrollmentStats;
@@ -40,24 +62,17 @@ public class CourseAnalyticsImpl implements CourseAnalytics {
     @Override
     public Map<String, Object> generateGradeDistribution() {
         Map<String, Object> gradeDistribution = new HashMap<>();
-        try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT grade, COUNT(*) as grade_count " +
-                             "FROM enrollment " +
-                             "WHERE grade IS NOT NULL " +
-                             "GROUP BY grade"
-             )) {
-
+        try {
+            int[] histogram = getGradeHistogram();
             Map<String, Integer> gradeCount = new HashMap<>();
-            while (rs.next()) {
-                String grade = rs.getString("grade");
-                int count = rs.getInt("grade_count");
-                gradeCount.put(grade, count);
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] > 0) {
+                    gradeCount.put(Grade.valueAt(i).getLabel(), histogram[i]);
+                }
             }
 
             gradeDistribution.put("gradeDistribution", gradeCount);
-        } catch (SQLException e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
         }
         return gradeDistribution;
@@ -66,44 +81,23 @@ public class CourseAnalyticsImpl implements CourseAnalytics {
     @Override
     public List<Map<String, Object>> getAverageGradesByCourse() {
         List<Map<String, Object>> averageGrades = new ArrayList<>();
-        try (Connection conn = dbManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT c.courseName, " +
-                             "AVG(CASE " +
-                             "    WHEN e.grade = 'A+' THEN 4.0 " +
-                             "    WHEN e.grade = 'A' THEN 4.0 " +
-                             "    WHEN e.grade = 'A-' THEN 3.7 " +
-                             "    WHEN e.grade = 'B+' THEN 3.3 " +
-                             "    WHEN e.grade = 'B' THEN 3.0 " +
-                             "    WHEN e.grade = 'B-' THEN 2.7 " +
-                             "    WHEN e.grade = 'C+' THEN 2.3 " +
-                             "    WHEN e.grade = 'C' THEN 2.0 " +
-                             "    WHEN e.grade = 'C-' THEN 1.7 " +
-                             "    WHEN e.grade = 'D+' THEN 1.3 " +
-                             "    WHEN e.grade = 'D' THEN 1.0 " +
-                             "    WHEN e.grade = 'D-' THEN 0.7 " +
-                             "    WHEN e.grade = 'F' THEN 0.0 " +
-                             "    ELSE NULL END) as average_gpa, " +
-                             "COUNT(e.enrollmentId) as total_students " +
-                             "FROM course c " +
-                             "LEFT JOIN enrollment e ON c.courseId = e.courseId " +
-                             "GROUP BY c.courseId, c.courseName"
-             )) {
-
-            while (rs.next()) {
+        try {
+            for (CourseGradeStats course : getCourseGradeStats()) {
                 Map<String, Object> courseGrade = new HashMap<>();
-                courseGrade.put("courseName", rs.getString("courseName"));
-                courseGrade.put("averageGPA", rs.getDouble("average_gpa"));
-                courseGrade.put("totalStudents", rs.getInt("total_students"));
+                courseGrade.put("courseName", course.courseName());
+                courseGrade.put("averageGPA", course.averageGradePoints());
+                courseGrade.put("totalStudents", course.enrollmentCount());
                 averageGrades.add(courseGrade);
             }
-        } catch (SQLException e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
         }
         return averageGrades;
     }
 
+    /**
+     * Loads every enrollment into memory. Use StreamingExporter for full-term dumps.
+     */
     public List<Map<String, Object>> getStudentCourseMarks() {
         List<Map<String, Object>> studentMarks = new ArrayList<>();
         try (Connection conn = dbManager.getConnection();
@@ -0,0 +1,13 @@
+package Utilities;
+
+/**
+ * Enrollment total for one course.
+ */
+public record CourseEnrollmentStats(int courseId, String courseName, int credits, String instructorName,
+                                    int enrollmentCount) {
+
+    static CourseEnrollmentStats from(CourseSummary summary) {
+        return new CourseEnrollmentStats(summary.getCourseId(), summary.getCourseName(), summary.getCredits(),
+                summary.getInstructorName(), summary.getEnrollmentCount());
+    }
+}
@@ -0,0 +1,15 @@
+package Utilities;
+
+/**
+ * Grade results for one course: letter-grade GPA over graded enrollments and the mean assignment score
+ * over graded submissions. Averages are 0 when there is nothing graded.
+ */
+public record CourseGradeStats(int courseId, String courseName, String instructorName, int enrollmentCount,
+                               int gradedCount, double averageGradePoints, int scoreCount, double averageScore) {
+
+    static CourseGradeStats from(CourseSummary summary) {
+        return new CourseGradeStats(summary.getCourseId(), summary.getCourseName(), summary.getInstructorName(),
+                summary.getEnrollmentCount(), summary.getGradedCount(), summary.getAverageGradePoints(),
+                summary.getScoreCount(), summary.getAverageScore());
+    }
+}
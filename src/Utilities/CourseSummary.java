@@ -0,0 +1,91 @@
+package Utilities;
+
+/**
+ * Precomputed per-course totals read from course_summary and course_grade_count.
+ */
+public class CourseSummary {
+    private final int courseId;
+    private final String courseName;
+    private final int credits;
+    private final String instructorName;
+    private final int enrollmentCount;
+    private final int gradedCount;
+    private final int scoreCount;
+    private final double scoreSum;
+    private final int[] gradeCounts;
+
+    public CourseSummary(int courseId, String courseName, int credits, String instructorName,
+                         int enrollmentCount, int gradedCount, int scoreCount, double scoreSum, int[] gradeCounts) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.credits = credits;
+        this.instructorName = instructorName;
+        this.enrollmentCount = enrollmentCount;
+        this.gradedCount = gradedCount;
+        this.scoreCount = scoreCount;
+        this.scoreSum = scoreSum;
+        this.gradeCounts = gradeCounts;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public String getInstructorName() {
+        return instructorName;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    /**
+     * @return Number of enrollments with a letter grade
+     */
+    public int getGradedCount() {
+        return gradedCount;
+    }
+
+    /**
+     * @return Number of graded assignment submissions
+     */
+    public int getScoreCount() {
+        return scoreCount;
+    }
+
+    public double getScoreSum() {
+        return scoreSum;
+    }
+
+    /**
+     * @return Mean assignment score, or 0 when nothing has been graded
+     */
+    public double getAverageScore() {
+        return scoreCount > 0 ? scoreSum / scoreCount : 0;
+    }
+
+    /**
+     * @return Mean grade points over graded enrollments, or 0 when nothing has been graded
+     */
+    public double getAverageGradePoints() {
+        double points = 0;
+        int graded = 0;
+        for (int i = 0; i < gradeCounts.length; i++) {
+            points += gradeCounts[i] * Grade.valueAt(i).getPoints();
+            graded += gradeCounts[i];
+        }
+        return graded > 0 ? points / graded : 0;
+    }
+
+    public int getGradeCount(Grade grade) {
+        return gradeCounts[grade.ordinal()];
+    }
+}
@@ -0,0 +1,434 @@
+package Utilities;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the course_summary and course_grade_count tables so analytics can read one row per
+ * course instead of aggregating every enrollment and submission.
+ * Write paths apply deltas on their own connection inside their own transaction. A periodic
+ * reconcile recomputes the totals from the base tables and repairs any course that has drifted.
+ */
+public class CourseSummaryService {
+    private static final Logger LOGGER = Logger.getLogger(CourseSummaryService.class.getName());
+
+    private static final long RECONCILE_INTERVAL_MINUTES = Long.getLong("summary.reconcileIntervalMinutes", 60L);
+
+    private static final String ENROLLMENT_DELTA_SQL =
+            "INSERT INTO course_summary (courseId, enrollmentCount) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE enrollmentCount = enrollmentCount + VALUES(enrollmentCount), " +
+            "lastUpdated = CURRENT_TIMESTAMP";
+    private static final String GRADED_DELTA_SQL =
+            "INSERT INTO course_summary (courseId, gradedCount) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE gradedCount = gradedCount + VALUES(gradedCount), " +
+            "lastUpdated = CURRENT_TIMESTAMP";
+    private static final String SCORE_DELTA_SQL =
+            "INSERT INTO course_summary (courseId, scoreCount, scoreSum) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE scoreCount = scoreCount + VALUES(scoreCount), " +
+            "scoreSum = scoreSum + VALUES(scoreSum), lastUpdated = CURRENT_TIMESTAMP";
+    private static final String GRADE_COUNT_DELTA_SQL =
+            "INSERT INTO course_grade_count (courseId, grade, gradeCount) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE gradeCount = gradeCount + VALUES(gradeCount)";
+
+    private static final String SUMMARY_READ_SQL =
+            "SELECT c.courseId, c.courseName, c.credits, i.instructorName, " +
+            "COALESCE(cs.enrollmentCount, 0) AS enrollmentCount, COALESCE(cs.gradedCount, 0) AS gradedCount, " +
+            "COALESCE(cs.scoreCount, 0) AS scoreCount, COALESCE(cs.scoreSum, 0) AS scoreSum " +
+            "FROM course c " +
+            "LEFT JOIN course_summary cs ON c.courseId = cs.courseId " +
+            "LEFT JOIN instructor i ON c.instructorId = i.instructorId " +
+            "ORDER BY c.courseId";
+    private static final String GRADE_COUNT_READ_SQL =
+            "SELECT courseId, grade, gradeCount FROM course_grade_count WHERE gradeCount <> 0";
+
+    private static final String GRADE_HISTOGRAM_SQL =
+            "SELECT grade, SUM(gradeCount) AS gradeCount FROM course_grade_count GROUP BY grade";
+
+    private static final String EXPECTED_ENROLLMENT_SQL =
+            "SELECT c.courseId, COUNT(e.enrollmentId) AS enrollmentCount, COUNT(e.grade) AS gradedCount " +
+            "FROM course c LEFT JOIN enrollment e ON c.courseId = e.courseId %s " +
+            "GROUP BY c.courseId";
+    private static final String EXPECTED_SCORE_SQL =
+            "SELECT e.courseId, COUNT(ad.score) AS scoreCount, COALESCE(SUM(ad.score), 0) AS scoreSum " +
+            "FROM enrollment e JOIN assignmentdistribution ad ON e.enrollmentId = ad.enrollmentId " +
+            "WHERE ad.isGraded = 1 %s " +
+            "GROUP BY e.courseId";
+    private static final String EXPECTED_GRADE_SQL =
+            "SELECT courseId, grade, COUNT(*) AS gradeCount " +
+            "FROM enrollment WHERE grade IS NOT NULL %s " +
+            "GROUP BY courseId, grade";
+
+    private static final String ACTUAL_SUMMARY_SQL =
+            "SELECT courseId, enrollmentCount, gradedCount, scoreCount, scoreSum FROM course_summary";
+    private static final String ACTUAL_GRADE_SQL =
+            "SELECT courseId, grade, gradeCount FROM course_grade_count";
+
+    private static final String LOCK_SUMMARY_SQL =
+            "INSERT INTO course_summary (courseId) VALUES (?) ON DUPLICATE KEY UPDATE courseId = VALUES(courseId)";
+    private static final String REPLACE_SUMMARY_SQL =
+            "UPDATE course_summary SET enrollmentCount = ?, gradedCount = ?, scoreCount = ?, scoreSum = ?, " +
+            "lastUpdated = CURRENT_TIMESTAMP WHERE courseId = ?";
+    private static final String DELETE_GRADE_COUNTS_SQL = "DELETE FROM course_grade_count WHERE courseId = ?";
+    private static final String INSERT_GRADE_COUNT_SQL =
+            "INSERT INTO course_grade_count (courseId, grade, gradeCount) VALUES (?, ?, ?)";
+
+    private static CourseSummaryService instance;
+
+    private final DatabaseConnectionManager dbManager;
+    private final ScheduledExecutorService reconciler;
+
+    private CourseSummaryService() {
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "course-summary-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (RECONCILE_INTERVAL_MINUTES > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcileQuietly, 0, RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    public static synchronized CourseSummaryService getInstance() {
+        if (instance == null) {
+            instance = new CourseSummaryService();
+        }
+        return instance;
+    }
+
+    /**
+     * Counts a new enrollment. Call on the connection and transaction that inserted it.
+     */
+    public void recordEnrollment(Connection conn, int courseId) throws SQLException {
+        recordEnrollments(conn, courseId, 1);
+    }
+
+    /**
+     * Counts several new enrollments in one course, e.g. after a batched insert.
+     */
+    public void recordEnrollments(Connection conn, int courseId, int count) throws SQLException {
+        if (count == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ENROLLMENT_DELTA_SQL)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, count);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Moves one enrollment between grade buckets. Either grade may be null for "no grade".
+     */
+    public void recordGradeChange(Connection conn, int courseId, Grade oldGrade, Grade newGrade) throws SQLException {
+        if (oldGrade == newGrade) {
+            return;
+        }
+        int[] gradeDeltas = new int[Grade.count()];
+        if (oldGrade != null) {
+            gradeDeltas[oldGrade.ordinal()]--;
+        }
+        if (newGrade != null) {
+            gradeDeltas[newGrade.ordinal()]++;
+        }
+        applyGradeDeltas(conn, courseId, gradeDeltas);
+    }
+
+    /**
+     * Applies per-grade count changes, indexed by Grade ordinal, in one batch.
+     */
+    public void applyGradeDeltas(Connection conn, int courseId, int[] gradeDeltas) throws SQLException {
+        int gradedDelta = 0;
+        boolean changed = false;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(GRADE_COUNT_DELTA_SQL)) {
+            for (int i = 0; i < gradeDeltas.length; i++) {
+                if (gradeDeltas[i] != 0) {
+                    pstmt.setInt(1, courseId);
+                    pstmt.setString(2, Grade.valueAt(i).getLabel());
+                    pstmt.setInt(3, gradeDeltas[i]);
+                    pstmt.addBatch();
+                    gradedDelta += gradeDeltas[i];
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return;
+            }
+            pstmt.executeBatch();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(GRADED_DELTA_SQL)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, gradedDelta);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Adjusts the graded submission count and score total for a course.
+     */
+    public void recordScoreChange(Connection conn, int courseId, int countDelta, BigDecimal sumDelta) throws SQLException {
+        if (countDelta == 0 && sumDelta.signum() == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(SCORE_DELTA_SQL)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, countDelta);
+            pstmt.setBigDecimal(3, sumDelta);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return One summary per course, in course id order
+     */
+    public List<CourseSummary> getCourseSummaries() {
+        Map<Integer, int[]> gradeCounts = new HashMap<>();
+        for (Object[] row : dbManager.query(GRADE_COUNT_READ_SQL, rs -> new Object[]{
+                rs.getInt("courseId"), Grade.fromLabel(rs.getString("grade")), rs.getInt("gradeCount")})) {
+            gradeCounts.computeIfAbsent((Integer) row[0], id -> new int[Grade.count()])
+                    [((Grade) row[1]).ordinal()] = (Integer) row[2];
+        }
+
+        return dbManager.query(SUMMARY_READ_SQL, rs -> {
+            int courseId = rs.getInt("courseId");
+            return new CourseSummary(
+                    courseId,
+                    rs.getString("courseName"),
+                    rs.getInt("credits"),
+                    rs.getString("instructorName"),
+                    rs.getInt("enrollmentCount"),
+                    rs.getInt("gradedCount"),
+                    rs.getInt("scoreCount"),
+                    rs.getDouble("scoreSum"),
+                    gradeCounts.getOrDefault(courseId, new int[Grade.count()])
+            );
+        });
+    }
+
+    public List<CourseEnrollmentStats> getCourseEnrollmentStats() {
+        List<CourseSummary> summaries = getCourseSummaries();
+        List<CourseEnrollmentStats> stats = new ArrayList<>(summaries.size());
+        for (CourseSummary summary : summaries) {
+            stats.add(CourseEnrollmentStats.from(summary));
+        }
+        return stats;
+    }
+
+    public List<CourseGradeStats> getCourseGradeStats() {
+        List<CourseSummary> summaries = getCourseSummaries();
+        List<CourseGradeStats> stats = new ArrayList<>(summaries.size());
+        for (CourseSummary summary : summaries) {
+            stats.add(CourseGradeStats.from(summary));
+        }
+        return stats;
+    }
+
+    /**
+     * @return Enrollment counts per letter grade across all courses, indexed by Grade ordinal
+     */
+    public int[] getGradeHistogram() {
+        int[] histogram = new int[Grade.count()];
+        for (Object[] row : dbManager.query(GRADE_HISTOGRAM_SQL, rs -> new Object[]{Grade.fromLabel(rs.getString("grade")), rs.getInt("gradeCount")})) {
+            histogram[((Grade) row[0]).ordinal()] = (Integer) row[1];
+        }
+        return histogram;
+    }
+
+    /**
+     * Recomputes every course's totals from the base tables and rewrites the courses that differ.
+     * @return Number of courses whose summary was repaired
+     */
+    public int reconcile() {
+        long startedAt = System.nanoTime();
+        int repaired = 0;
+
+        try (Connection conn = dbManager.getConnection()) {
+            Map<Integer, Totals> expected = loadExpected(conn, null);
+            Map<Integer, Totals> actual = loadActual(conn);
+
+            for (Map.Entry<Integer, Totals> entry : expected.entrySet()) {
+                Totals current = actual.getOrDefault(entry.getKey(), new Totals());
+                if (!entry.getValue().matches(current)) {
+                    repairCourse(conn, entry.getKey());
+                    repaired++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to reconcile course summaries", e);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        if (repaired > 0) {
+            LOGGER.warning(String.format("Course summary reconcile repaired %d courses in %d ms", repaired, elapsedMillis));
+        } else {
+            LOGGER.fine(String.format("Course summary reconcile found no drift in %d ms", elapsedMillis));
+        }
+        return repaired;
+    }
+
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Scheduled course summary reconcile failed", e);
+        }
+    }
+
+    /**
+     * Rewrites one course. The summary row is locked before the base tables are read, so a writer that
+     * has not yet applied its delta applies it on top of the rebuilt totals, and one that has waits.
+     */
+    private void repairCourse(Connection conn, int courseId) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement pstmt = conn.prepareStatement(LOCK_SUMMARY_SQL)) {
+                pstmt.setInt(1, courseId);
+                pstmt.executeUpdate();
+            }
+
+            Totals totals = loadExpected(conn, courseId).getOrDefault(courseId, new Totals());
+
+            try (PreparedStatement pstmt = conn.prepareStatement(REPLACE_SUMMARY_SQL)) {
+                pstmt.setInt(1, totals.enrollmentCount);
+                pstmt.setInt(2, totals.gradedCount);
+                pstmt.setInt(3, totals.scoreCount);
+                pstmt.setBigDecimal(4, totals.scoreSum);
+                pstmt.setInt(5, courseId);
+                pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_GRADE_COUNTS_SQL)) {
+                pstmt.setInt(1, courseId);
+                pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_GRADE_COUNT_SQL)) {
+                for (int i = 0; i < totals.gradeCounts.length; i++) {
+                    if (totals.gradeCounts[i] != 0) {
+                        pstmt.setInt(1, courseId);
+                        pstmt.setString(2, Grade.valueAt(i).getLabel());
+                        pstmt.setInt(3, totals.gradeCounts[i]);
+                        pstmt.addBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * @param courseId Course to recompute, or null for every course
+     */
+    private Map<Integer, Totals> loadExpected(Connection conn, Integer courseId) throws SQLException {
+        Map<Integer, Totals> totals = new HashMap<>();
+
+        for (Object[] row : queryAggregate(conn, EXPECTED_ENROLLMENT_SQL, "WHERE c.courseId = ?", courseId,
+                rs -> new Object[]{rs.getInt("courseId"), rs.getInt("enrollmentCount"), rs.getInt("gradedCount")})) {
+            Totals course = totals.computeIfAbsent((Integer) row[0], id -> new Totals());
+            course.enrollmentCount = (Integer) row[1];
+            course.gradedCount = (Integer) row[2];
+        }
+        for (Object[] row : queryAggregate(conn, EXPECTED_SCORE_SQL, "AND e.courseId = ?", courseId,
+                rs -> new Object[]{rs.getInt("courseId"), rs.getInt("scoreCount"), rs.getBigDecimal("scoreSum")})) {
+            Totals course = totals.computeIfAbsent((Integer) row[0], id -> new Totals());
+            course.scoreCount = (Integer) row[1];
+            course.scoreSum = (BigDecimal) row[2];
+        }
+        for (Object[] row : queryAggregate(conn, EXPECTED_GRADE_SQL, "AND courseId = ?", courseId,
+                rs -> new Object[]{rs.getInt("courseId"), Grade.fromLabel(rs.getString("grade")), rs.getInt("gradeCount")})) {
+            totals.computeIfAbsent((Integer) row[0], id -> new Totals())
+                    .gradeCounts[((Grade) row[1]).ordinal()] = (Integer) row[2];
+        }
+        return totals;
+    }
+
+    private Map<Integer, Totals> loadActual(Connection conn) throws SQLException {
+        Map<Integer, Totals> totals = new HashMap<>();
+
+        for (Object[] row : queryAggregate(conn, ACTUAL_SUMMARY_SQL, "", null, rs -> new Object[]{
+                rs.getInt("courseId"), rs.getInt("enrollmentCount"), rs.getInt("gradedCount"),
+                rs.getInt("scoreCount"), rs.getBigDecimal("scoreSum")})) {
+            Totals course = totals.computeIfAbsent((Integer) row[0], id -> new Totals());
+            course.enrollmentCount = (Integer) row[1];
+            course.gradedCount = (Integer) row[2];
+            course.scoreCount = (Integer) row[3];
+            course.scoreSum = (BigDecimal) row[4];
+        }
+        for (Object[] row : queryAggregate(conn, ACTUAL_GRADE_SQL, "", null, rs -> new Object[]{
+                rs.getInt("courseId"), Grade.fromLabel(rs.getString("grade")), rs.getInt("gradeCount")})) {
+            totals.computeIfAbsent((Integer) row[0], id -> new Totals())
+                    .gradeCounts[((Grade) row[1]).ordinal()] = (Integer) row[2];
+        }
+        return totals;
+    }
+
+    /**
+     * Runs a query on the given connection, narrowed to one course when courseId is given.
+     * A %s in the SQL marks where the course filter goes.
+     */
+    private static <T> List<T> queryAggregate(Connection conn, String template, String courseFilter, Integer courseId,
+                                              RowMapper<T> rowMapper) throws SQLException {
+        String sql = template.contains("%s") ? String.format(template, courseId == null ? "" : courseFilter) : template;
+        List<T> rows = new ArrayList<>();
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (courseId != null) {
+                pstmt.setInt(1, courseId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(rowMapper.mapRow(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static class Totals {
+        private int enrollmentCount;
+        private int gradedCount;
+        private int scoreCount;
+        private BigDecimal scoreSum = BigDecimal.ZERO;
+        private final int[] gradeCounts = new int[Grade.count()];
+
+        private boolean matches(Totals other) {
+            if (enrollmentCount != other.enrollmentCount
+                    || gradedCount != other.gradedCount
+                    || scoreCount != other.scoreCount
+                    || scoreSum.compareTo(other.scoreSum) != 0) {
+                return false;
+            }
+            for (int i = 0; i < gradeCounts.length; i++) {
+                if (gradeCounts[i] != other.gradeCounts[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
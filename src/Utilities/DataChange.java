@@ -0,0 +1,10 @@
+package Utilities;
+
+/**
+ * Kinds of committed writes that derived data (caches, summaries) may depend on.
+ */
+public enum DataChange {
+    ENROLLMENT,
+    GRADE,
+    COURSE
+}
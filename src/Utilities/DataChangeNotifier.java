@@ -0,0 +1,48 @@
+package Utilities;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells interested caches that a write has been committed.
+ * Write paths call fire() after commit; listeners run synchronously on the writing thread and
+ * should only do cheap work such as dropping cache entries.
+ */
+public class DataChangeNotifier {
+    private static final Logger LOGGER = Logger.getLogger(DataChangeNotifier.class.getName());
+
+    private static DataChangeNotifier instance;
+
+    private final List<Consumer<DataChange>> listeners = new CopyOnWriteArrayList<>();
+
+    private DataChangeNotifier() {
+    }
+
+    public static synchronized DataChangeNotifier getInstance() {
+        if (instance == null) {
+            instance = new DataChangeNotifier();
+        }
+        return instance;
+    }
+
+    public void addListener(Consumer<DataChange> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<DataChange> listener) {
+        listeners.remove(listener);
+    }
+
+    public void fire(DataChange change) {
+        for (Consumer<DataChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Data change listener failed for " + change, e);
+            }
+        }
+    }
+}
@@ -1,20 +1,62 @@
 package Utilities;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 public class DatabaseConnectionManager {
     private static DatabaseConnectionManager instance;
-    private Connection connection;
+    private final ConnectionPool connectionPool;
+    private final StatementLeakDetector leakDetector;
+    private final StatementMetrics statementMetrics;
+    private final SlowQueryLog slowQueryLog;
 
-    private static final String URL = "jdbc:mariadb://localhost:3306/universitydb";
+    private static final String URL = "jdbc:mariadb://localhost:3306/universitydb"
+            + "?useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&useBulkStmts=true";
     private static final String USERNAME = "username";
     private static final String PASSWORD = "passwords";
 
+    private static final int MAX_POOL_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final long BORROW_TIMEOUT_MILLIS = Long.getLong("db.pool.borrowTimeoutMillis", 30_000L);
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("db.pool.idleTimeoutMillis", 600_000L);
+    private static final long MAX_LIFETIME_MILLIS = Long.getLong("db.pool.maxLifetimeMillis", 1_800_000L);
+    private static final int VALIDATION_TIMEOUT_SECONDS = Integer.getInteger("db.pool.validationTimeoutSeconds", 5);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("db.statementCache.size", 64);
+    // Off by default: every tracked statement captures a stack trace when it is opened
+    private static final long LEAK_DETECTION_THRESHOLD_MILLIS = Long.getLong("db.leakDetectionThresholdMillis", 0L);
+    private static final boolean METRICS_ENABLED = Boolean.parseBoolean(System.getProperty("db.metrics.enabled", "true"));
+    private static final int METRICS_MAX_FINGERPRINTS = Integer.getInteger("db.metrics.maxFingerprints", 500);
+    private static final long METRICS_LOG_INTERVAL_SECONDS = Long.getLong("db.metrics.logIntervalSeconds", 300L);
+    private static final boolean METRICS_JMX = Boolean.parseBoolean(System.getProperty("db.metrics.jmx", "true"));
+    private static final long SLOW_QUERY_THRESHOLD_MILLIS = Long.getLong("db.slowQuery.thresholdMillis", 1000L);
+    private static final long SLOW_QUERY_EXPLAIN_INTERVAL_MILLIS = Long.getLong("db.slowQuery.explainIntervalMillis", 600_000L);
+    private static final String SLOW_QUERY_FILE = System.getProperty("db.slowQuery.file", "logs/slow-queries.%g.log");
+    private static final int SLOW_QUERY_FILE_SIZE_BYTES = Integer.getInteger("db.slowQuery.fileSizeBytes", 10_000_000);
+    private static final int SLOW_QUERY_FILE_COUNT = Integer.getInteger("db.slowQuery.fileCount", 5);
+    private static final Pattern SLOW_QUERY_REDACTED_COLUMNS = Pattern.compile(
+            System.getProperty("db.slowQuery.redactColumns", "password|passwd|hash|salt|secret|token|email|username|dateOfBirth"),
+            Pattern.CASE_INSENSITIVE);
+
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnectionManager.class.getName());
 
-    public DatabaseConnectionManager() {}
+    private DatabaseConnectionManager() {
+        this.leakDetector = new StatementLeakDetector(LEAK_DETECTION_THRESHOLD_MILLIS);
+        this.statementMetrics = METRICS_ENABLED
+                ? new StatementMetrics(METRICS_MAX_FINGERPRINTS, METRICS_LOG_INTERVAL_SECONDS, METRICS_JMX)
+                : null;
+        // EXPLAIN gets its own connection so it never waits for, or holds, a pool slot
+        this.slowQueryLog = SLOW_QUERY_THRESHOLD_MILLIS > 0
+                ? new SlowQueryLog(SLOW_QUERY_THRESHOLD_MILLIS, SLOW_QUERY_EXPLAIN_INTERVAL_MILLIS,
+                        SLOW_QUERY_REDACTED_COLUMNS, () -> DriverManager.getConnection(URL, USERNAME, PASSWORD),
+                        SLOW_QUERY_FILE, SLOW_QUERY_FILE_SIZE_BYTES, SLOW_QUERY_FILE_COUNT)
+                : null;
+        this.connectionPool = new ConnectionPool(URL, USERNAME, PASSWORD, MAX_POOL_SIZE,
+                BORROW_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, MAX_LIFETIME_MILLIS, VALIDATION_TIMEOUT_SECONDS,
+                STATEMENT_CACHE_SIZE, leakDetector, statementMetrics, slowQueryLog);
+    }
 
     public static synchronized DatabaseConnectionManager getInstance() {
         if (instance == null) {
@@ -23,12 +65,12 @@ public class DatabaseConnectionManager {
         return instance;
     }
 
+    /**
+     * Borrows a pooled connection. Callers must close it to hand it back to the pool.
+     */
     public Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            }
-            return connection;
+            return connectionPool.borrow();
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Database connection error", e);
             throw new RuntimeException("Unable to connect to the database", e);
@@ -36,28 +78,61 @@ public class DatabaseConnectionManager {
     }
 
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        connectionPool.close();
+        leakDetector.shutdown();
+        if (statementMetrics != null) {
+            statementMetrics.shutdown();
+        }
+        if (slowQueryLog != null) {
+            slowQueryLog.shutdown();
+        }
+    }
+
+    public long getStatementCacheHits() {
+        return StatementCache.getTotalHits();
+    }
+
+    public long getStatementCacheMisses() {
+        return StatementCache.getTotalMisses();
+    }
+
+    /**
+     * Runs a query and maps every row; the statement and connection are closed before returning.
+     * @return List of mapped rows
+     */
+    public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... params) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = prepareStatement(conn, sql, params);
+             ResultSet rs = stmt.executeQuery()) {
+            List<T> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(rowMapper.mapRow(rs));
             }
+            return rows;
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Error closing database connection", e);
+            LOGGER.log(Level.SEVERE, "Query execution error", e);
+            throw new RuntimeException("Error executing query", e);
         }
     }
 
-    public ResultSet executeQuery(String sql, Object... params) {
-        try {
-            PreparedStatement stmt = prepareStatement(sql, params);
-            return stmt.executeQuery();
+    /**
+     * Runs a query and maps the first row only.
+     * @return Mapped first row, or null when the query returns no rows
+     */
+    public <T> T queryForObject(String sql, RowMapper<T> rowMapper, Object... params) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = prepareStatement(conn, sql, params);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rowMapper.mapRow(rs) : null;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Query execution error", e);
             throw new RuntimeException("Error executing query", e);
         }
     }
 
-    public int executeUpdate(String sql, Object... params) {
-        try {
-            PreparedStatement stmt = prepareStatement(sql, params);
+    public int update(String sql, Object... params) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = prepareStatement(conn, sql, params)) {
             return stmt.executeUpdate();
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Update execution error", e);
@@ -65,11 +140,57 @@ public class DatabaseConnectionManager {
         }
     }
 
-    private PreparedStatement prepareStatement(String sql, Object... params) throws SQLException {
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        for (int i = 0; i < params.length; i++) {
-            stmt.setObject(i + 1, params[i]);
+    /**
+     * Runs the callback on one connection in a single transaction. Commits when it returns and rolls
+     * back when it throws; the connection goes back to the pool either way.
+     * @return The callback's result
+     */
+    public <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = callback.doInTransaction(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return Per-statement timings, or null when disabled with -Ddb.metrics.enabled=false
+     */
+    public StatementMetrics getStatementMetrics() {
+        return statementMetrics;
+    }
+
+    /**
+     * @return Slow statement log, or null when disabled with -Ddb.slowQuery.thresholdMillis=0
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    public int getOpenStatementCount() {
+        return leakDetector.getOpenCount();
+    }
+
+    private PreparedStatement prepareStatement(Connection conn, String sql, Object... params) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        try {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
         }
         return stmt;
     }
-}
\ No newline at end of file
+}
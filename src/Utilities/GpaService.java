@@ -0,0 +1,176 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Computes credit-weighted GPAs from enrollment grades.
+ * Grade points come from a lookup table indexed by Grade ordinal. Single-student results are cached
+ * until that student's grades change; the bulk mode streams every graded enrollment once in
+ * student order and hands each GPA to the caller as soon as it is complete.
+ */
+public class GpaService {
+    private static final double[] GRADE_POINTS = new double[Grade.count()];
+
+    static {
+        for (int i = 0; i < GRADE_POINTS.length; i++) {
+            GRADE_POINTS[i] = Grade.valueAt(i).getPoints();
+        }
+    }
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String STUDENT_GRADES_SQL =
+            "SELECT e.grade, c.credits FROM enrollment e JOIN course c ON e.courseId = c.courseId " +
+            "WHERE e.studentId = ? AND e.grade IS NOT NULL";
+    private static final String ALL_GRADES_SQL =
+            "SELECT e.studentId, e.grade, c.credits FROM enrollment e JOIN course c ON e.courseId = c.courseId " +
+            "WHERE e.grade IS NOT NULL ORDER BY e.studentId";
+
+    private static GpaService instance;
+
+    private final DatabaseConnectionManager dbManager;
+    // Futures rather than values, so the query runs outside the map and callers arriving mid-load share it
+    private final Map<Integer, CompletableFuture<StudentGpa>> cache = new ConcurrentHashMap<>();
+
+    private GpaService() {
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        DataChangeNotifier.getInstance().addListener(change -> {
+            // Course credits feed every GPA that includes the course
+            if (change == DataChange.COURSE) {
+                cache.clear();
+            }
+        });
+    }
+
+    public static synchronized GpaService getInstance() {
+        if (instance == null) {
+            instance = new GpaService();
+        }
+        return instance;
+    }
+
+    public static double gradePoints(Grade grade) {
+        return GRADE_POINTS[grade.ordinal()];
+    }
+
+    public StudentGpa getGpa(int studentId) {
+        CompletableFuture<StudentGpa> future = cache.get(studentId);
+        if (future == null) {
+            CompletableFuture<StudentGpa> created = new CompletableFuture<>();
+            future = cache.putIfAbsent(studentId, created);
+            if (future == null) {
+                future = created;
+                load(studentId, created);
+            }
+        }
+        return await(future);
+    }
+
+    /**
+     * Drops a student's cached GPA. Call after committing a change to their grades.
+     * A load already in flight still completes for its callers but is not reused afterwards.
+     */
+    public void invalidate(int studentId) {
+        cache.remove(studentId);
+    }
+
+    /**
+     * Streams every graded enrollment once, ordered by student, so memory use does not grow with
+     * the number of students. Students without graded courses are skipped.
+     * @return Number of students passed to the consumer
+     */
+    public int computeAllGpas(Consumer<StudentGpa> consumer) {
+        int students = 0;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ALL_GRADES_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Accumulator current = null;
+                while (rs.next()) {
+                    int studentId = rs.getInt(1);
+                    if (current == null || current.studentId != studentId) {
+                        if (current != null) {
+                            consumer.accept(current.toGpa());
+                            students++;
+                        }
+                        current = new Accumulator(studentId);
+                    }
+                    current.add(Grade.fromLabel(rs.getString(2)), rs.getInt(3));
+                }
+                if (current != null) {
+                    consumer.accept(current.toGpa());
+                    students++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to compute GPAs", e);
+        }
+
+        return students;
+    }
+
+    private void load(int studentId, CompletableFuture<StudentGpa> future) {
+        try {
+            future.complete(loadGpa(studentId));
+        } catch (RuntimeException | Error e) {
+            cache.remove(studentId, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static StudentGpa await(CompletableFuture<StudentGpa> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to load GPA", cause);
+        }
+    }
+
+    private StudentGpa loadGpa(int studentId) {
+        Accumulator accumulator = new Accumulator(studentId);
+        for (Object[] row : dbManager.query(STUDENT_GRADES_SQL,
+                rs -> new Object[]{Grade.fromLabel(rs.getString("grade")), rs.getInt("credits")}, studentId)) {
+            accumulator.add((Grade) row[0], (Integer) row[1]);
+        }
+        return accumulator.toGpa();
+    }
+
+    private static class Accumulator {
+        private final int studentId;
+        private int credits;
+        private double qualityPoints;
+        private int courses;
+
+        private Accumulator(int studentId) {
+            this.studentId = studentId;
+        }
+
+        private void add(Grade grade, int courseCredits) {
+            credits += courseCredits;
+            qualityPoints += GRADE_POINTS[grade.ordinal()] * courseCredits;
+            courses++;
+        }
+
+        private StudentGpa toGpa() {
+            return new StudentGpa(studentId, credits > 0 ? qualityPoints / credits : 0, credits, qualityPoints, courses);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package Utilities;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Letter grades stored in enrollment.grade, in the column's enum order, with their grade points.
+ */
+public enum Grade {
+    A_PLUS("A+", 4.0),
+    A("A", 4.0),
+    A_MINUS("A-", 3.7),
+    B_PLUS("B+", 3.3),
+    B("B", 3.0),
+    B_MINUS("B-", 2.7),
+    C_PLUS("C+", 2.3),
+    C("C", 2.0),
+    C_MINUS("C-", 1.7),
+    D_PLUS("D+", 1.3),
+    D("D", 1.0),
+    D_MINUS("D-", 0.7),
+    F("F", 0.0);
+
+    private static final Grade[] VALUES = values();
+    private static final Map<String, Grade> BY_LABEL = new HashMap<>();
+
+    static {
+        for (Grade grade : VALUES) {
+            BY_LABEL.put(grade.label, grade);
+        }
+    }
+
+    private final String label;
+    private final double points;
+
+    Grade(String label, double points) {
+        this.label = label;
+        this.points = points;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getPoints() {
+        return points;
+    }
+
+    /**
+     * @return The grade with this database label, or null for a null or blank label
+     */
+    public static Grade fromLabel(String label) {
+        if (label == null || label.isEmpty()) {
+            return null;
+        }
+        Grade grade = BY_LABEL.get(label);
+        if (grade == null) {
+            throw new IllegalArgumentException("Unknown grade: " + label);
+        }
+        return grade;
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    public static Grade valueAt(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
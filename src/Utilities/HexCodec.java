@@ -0,0 +1,37 @@
+package Utilities;
+
+/**
+ * Table-driven hex encoding without per-byte formatting.
+ */
+public final class HexCodec {
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private HexCodec() {}
+
+    public static String encode(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        encodeTo(bytes, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Writes the hex digits of the bytes into the target array starting at offset.
+     */
+    public static void encodeTo(byte[] bytes, char[] target, int offset) {
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & 0xff;
+            target[offset + i * 2] = DIGITS[value >>> 4];
+            target[offset + i * 2 + 1] = DIGITS[value & 0x0f];
+        }
+    }
+
+    public static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f') && (c < 'A' || c > 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,220 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes login and logout audit records on a background thread in JDBC batches.
+ * Events are flushed every BATCH_SIZE events or FLUSH_INTERVAL_MILLIS, whichever comes first.
+ * When the queue is full new events are dropped and counted rather than blocking the login.
+ * Pending events are flushed on shutdown.
+ */
+public class LoginAuditWriter {
+    private static final Logger LOGGER = Logger.getLogger(LoginAuditWriter.class.getName());
+
+    private static final int QUEUE_CAPACITY = Integer.getInteger("audit.queueCapacity", 10_000);
+    private static final int BATCH_SIZE = Integer.getInteger("audit.batchSize", 100);
+    private static final long FLUSH_INTERVAL_MILLIS = Long.getLong("audit.flushIntervalMillis", 1_000L);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+
+    private static final String INSERT_LOGIN_SQL =
+            "INSERT INTO LoginAudit (username, login_time, success) VALUES (?, ?, ?)";
+    private static final String UPDATE_LOGOUT_SQL =
+            "UPDATE LoginAudit SET logout_time = ? WHERE username = ? AND logout_time IS NULL";
+
+    private static LoginAuditWriter instance;
+
+    private final BlockingQueue<AuditEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder droppedEvents = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private LoginAuditWriter() {
+        writerThread = new Thread(this::run, "login-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "login-audit-shutdown"));
+    }
+
+    public static synchronized LoginAuditWriter getInstance() {
+        if (instance == null) {
+            instance = new LoginAuditWriter();
+        }
+        return instance;
+    }
+
+    public void recordLogin(String username, boolean success) {
+        enqueue(new AuditEvent(username, success, false));
+    }
+
+    public void recordLogout(String username) {
+        enqueue(new AuditEvent(username, false, true));
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    public int getPendingEventCount() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        // The writer notices within one poll interval; interrupting it could abort the final flush
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!running || !queue.offer(event)) {
+            droppedEvents.increment();
+            long dropped = droppedEvents.sum();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                LOGGER.warning("Login audit queue full or closed; " + dropped + " events dropped so far");
+            }
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS);
+                while (batch.size() < BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            writeBatch(batch);
+            batch.clear();
+        }
+
+        // Clear any stray interrupt so borrowing a connection for the final flush does not fail
+        Thread.interrupted();
+        queue.drainTo(batch);
+        writeBatch(batch);
+    }
+
+    /**
+     * Writes events in arrival order, grouping consecutive logins and consecutive logouts into
+     * batches so a logout never closes a login that was recorded after it. The whole list is one
+     * transaction; if the database rejects it, it is rolled back and the events are retried one at a
+     * time, so a bad event only drops itself.
+     */
+    private void writeBatch(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = DatabaseConnectionManager.getInstance().getConnection();
+             PreparedStatement insertStmt = conn.prepareStatement(INSERT_LOGIN_SQL);
+             PreparedStatement logoutStmt = conn.prepareStatement(UPDATE_LOGOUT_SQL)) {
+
+            conn.setAutoCommit(false);
+
+            try {
+                int start = 0;
+                while (start < events.size()) {
+                    boolean logout = events.get(start).logout;
+                    PreparedStatement stmt = logout ? logoutStmt : insertStmt;
+
+                    int end = start;
+                    while (end < events.size() && events.get(end).logout == logout) {
+                        bind(stmt, events.get(end));
+                        stmt.addBatch();
+                        end++;
+                    }
+
+                    stmt.executeBatch();
+                    start = end;
+                }
+
+                conn.commit();
+                return;
+            } catch (SQLException e) {
+                insertStmt.clearBatch();
+                logoutStmt.clearBatch();
+                conn.rollback();
+                LOGGER.log(Level.FINE, "Login audit batch failed, retrying events individually", e);
+            }
+
+            int failed = 0;
+            for (AuditEvent event : events) {
+                PreparedStatement stmt = event.logout ? logoutStmt : insertStmt;
+                try {
+                    bind(stmt, event);
+                    stmt.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    failed++;
+                    LOGGER.log(Level.WARNING, "Failed to write login audit event for " + event.username, e);
+                }
+            }
+            droppedEvents.add(failed);
+        } catch (SQLException | RuntimeException e) {
+            droppedEvents.add(events.size());
+            LOGGER.log(Level.WARNING, "Failed to write " + events.size() + " login audit events", e);
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, AuditEvent event) throws SQLException {
+        if (event.logout) {
+            stmt.setTimestamp(1, event.timestamp);
+            stmt.setString(2, event.username);
+        } else {
+            stmt.setString(1, event.username);
+            stmt.setTimestamp(2, event.timestamp);
+            stmt.setBoolean(3, event.success);
+        }
+    }
+
+    private static class AuditEvent {
+        private final String username;
+        private final boolean success;
+        private final boolean logout;
+        private final Timestamp timestamp;
+
+        private AuditEvent(String username, boolean success, boolean logout) {
+            this.username = username;
+            this.success = success;
+            this.logout = logout;
+            this.timestamp = new Timestamp(System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package Utilities;
+
+public interface PasswordHasher {
+    /**
+     * Hashes a password with a fresh salt
+     * @return Self-describing hash string suitable for the passwordHash column
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored hash
+     * @return true when the password matches
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * Tells whether a stored hash uses an outdated scheme or cost and should be replaced
+     * @return true when the hash should be recomputed after the next successful login
+     */
+    boolean needsRehash(String storedHash);
+}
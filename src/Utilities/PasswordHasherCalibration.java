@@ -0,0 +1,57 @@
+package Utilities;
+
+import java.util.Arrays;
+
+/**
+ * Benchmark that picks a PBKDF2 iteration count for a per-login CPU budget on this machine.
+ * Run with the target milliseconds as the first argument (default 250) and pass the
+ * recommended value to the application as -Dpassword.pbkdf2.iterations=N.
+ */
+public class PasswordHasherCalibration {
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 7;
+    private static final int MINIMUM_ITERATIONS = 100_000;
+
+    /**
+     * Measures the median cost of one hash at the probe iteration count and scales it to the budget.
+     * @return Iteration count rounded down to the nearest thousand, never below the minimum
+     */
+    public static int calibrate(long targetMillis) {
+        Pbkdf2PasswordHasher probe = new Pbkdf2PasswordHasher(PROBE_ITERATIONS);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            probe.hash("calibration-warmup");
+        }
+
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.hash("calibration-password");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double nanosPerIteration = (double) samples[MEASURED_ROUNDS / 2] / PROBE_ITERATIONS;
+
+        long iterations = (long) (targetMillis * 1_000_000L / nanosPerIteration);
+        iterations = (iterations / 1000) * 1000;
+        return (int) Math.max(MINIMUM_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+
+        int iterations = calibrate(targetMillis);
+
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(iterations);
+        String hash = hasher.hash("calibration-check");
+        long start = System.nanoTime();
+        boolean verified = hasher.verify("calibration-check", hash);
+        long verifyMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Target per-login budget: " + targetMillis + " ms");
+        System.out.println("Recommended iterations: " + iterations);
+        System.out.println("Measured verify time: " + verifyMillis + " ms (verified=" + verified + ")");
+        System.out.println("Use: -Dpassword.pbkdf2.iterations=" + iterations);
+    }
+}
@@ -0,0 +1,130 @@
+package Utilities;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hashing from the JDK.
+ * Hashes are stored as {@code pbkdf2-sha256$<iterations>$<base64 salt>$<base64 hash>} so the
+ * cost can be raised later without invalidating existing rows. Legacy unsalted SHA-256 hex
+ * hashes are still accepted by verify() and always report needsRehash().
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    private static final Logger LOGGER = Logger.getLogger(Pbkdf2PasswordHasher.class.getName());
+
+    public static final int DEFAULT_ITERATIONS = Integer.getInteger("password.pbkdf2.iterations", 210_000);
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int LEGACY_HEX_LENGTH = 64;
+
+    private static Pbkdf2PasswordHasher instance;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iteration count must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    public static synchronized Pbkdf2PasswordHasher getInstance() {
+        if (instance == null) {
+            instance = new Pbkdf2PasswordHasher(DEFAULT_ITERATIONS);
+        }
+        return instance;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] derived = derive(password, salt, iterations);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + '$' + iterations + '$' + encoder.encodeToString(salt) + '$' + encoder.encodeToString(derived);
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+
+        if (isLegacyHash(storedHash)) {
+            byte[] expected = storedHash.toLowerCase().getBytes();
+            byte[] actual = HexCodec.encode(legacyDigest(password)).getBytes();
+            return MessageDigest.isEqual(expected, actual);
+        }
+
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Malformed password hash", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || isLegacyHash(storedHash)) {
+            return true;
+        }
+
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 4 || !PREFIX.equals(parts[0]) || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static boolean isLegacyHash(String storedHash) {
+        return storedHash.length() == LEGACY_HEX_LENGTH && HexCodec.isHex(storedHash);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            LOGGER.log(Level.SEVERE, "Password hashing error", e);
+            throw new RuntimeException("Password hashing failed", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] legacyDigest(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes());
+        } catch (NoSuchAlgorithmException e) {
+            LOGGER.log(Level.SEVERE, "Password hashing error", e);
+            throw new RuntimeException("Password hashing failed", e);
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package Utilities;
+
+import Models.Person;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports students or instructors from a CSV file through a pipeline of parsing, validation and
+ * password hashing, and batched inserts. One thread reads and parses lines, a pool of workers validates rows and hashes
+ * passwords, and the calling thread inserts rows in batches, committing each batch. The stages are
+ * joined by bounded queues, so a slow stage holds the ones before it back instead of buffering the
+ * whole file.
+ * <p>
+ * Columns are {@code name,email,dateOfBirth,password[,active]} for students and
+ * {@code name,email,department,password[,active]} for instructors. A first line starting with
+ * {@code name} is treated as a header. Quoted fields may contain commas and doubled quotes but not
+ * line breaks.
+ */
+public class PersonCsvImporter {
+    private static final Logger LOGGER = Logger.getLogger(PersonCsvImporter.class.getName());
+
+    private static final int BATCH_SIZE = Integer.getInteger("import.batchSize", 500);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("import.queueCapacity", 1_000);
+    private static final int HASH_THREADS = Integer.getInteger("import.hashThreads",
+            Runtime.getRuntime().availableProcessors());
+    private static final long POLL_MILLIS = 100;
+    private static final long PARTIAL_FLUSH_MILLIS = Long.getLong("import.partialFlushMillis", 5_000L);
+
+    public enum Target {
+        STUDENT("student", "studentName", "dateOfBirth", ReferenceDataCache.Entity.STUDENT),
+        INSTRUCTOR("instructor", "instructorName", "department", ReferenceDataCache.Entity.INSTRUCTOR);
+
+        private final String table;
+        private final String nameColumn;
+        private final String detailColumn;
+        private final ReferenceDataCache.Entity referenceEntity;
+
+        Target(String table, String nameColumn, String detailColumn, ReferenceDataCache.Entity referenceEntity) {
+            this.table = table;
+            this.nameColumn = nameColumn;
+            this.detailColumn = detailColumn;
+            this.referenceEntity = referenceEntity;
+        }
+
+        private String insertSql() {
+            return "INSERT INTO " + table + " (" + nameColumn + ", email, " + detailColumn +
+                    ", passwordHash, isActive) VALUES (?, ?, ?, ?, ?)";
+        }
+    }
+
+    private static final ParsedLine END_OF_FILE = new ParsedLine(-1, new String[0]);
+    private static final ImportRow END_OF_ROWS = new ImportRow(-1);
+
+    private final DatabaseConnectionManager dbManager;
+    private final PasswordHasher passwordHasher;
+
+    public PersonCsvImporter() {
+        this(DatabaseConnectionManager.getInstance(), Pbkdf2PasswordHasher.getInstance());
+    }
+
+    public PersonCsvImporter(DatabaseConnectionManager dbManager, PasswordHasher passwordHasher) {
+        this.dbManager = dbManager;
+        this.passwordHasher = passwordHasher;
+    }
+
+    /**
+     * Imports every valid row of the file. Invalid rows and rows the database rejects are skipped and
+     * listed in the report; they do not stop the import. If reading fails partway through, no further
+     * batches are inserted and the report records the read error alongside the rows already committed.
+     * @throws IOException If the file cannot be read before any row was imported
+     */
+    public Report importFile(Path csvFile, Target target) throws IOException {
+        long startedAt = System.nanoTime();
+        Set<String> knownEmails = loadExistingEmails(target);
+        ConcurrentLinkedQueue<RowError> errors = new ConcurrentLinkedQueue<>();
+        BlockingQueue<ParsedLine> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ImportRow> hashed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicInteger rowsRead = new AtomicInteger();
+        AtomicInteger runningWorkers = new AtomicInteger(HASH_THREADS);
+        Pipeline pipeline = new Pipeline();
+        AtomicReference<IOException> readError = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(HASH_THREADS + 1);
+        try {
+            Future<?> reader = executor.submit(() -> {
+                try {
+                    readFile(csvFile, parsed, rowsRead, pipeline);
+                } catch (IOException e) {
+                    // Stop before any further batch is inserted; the rows already committed stay reported
+                    readError.set(e);
+                    pipeline.abort(null);
+                } finally {
+                    for (int i = 0; i < HASH_THREADS; i++) {
+                        pipeline.put(parsed, END_OF_FILE);
+                    }
+                }
+                return null;
+            });
+
+            for (int i = 0; i < HASH_THREADS; i++) {
+                executor.submit(() -> {
+                    try {
+                        validateAndHash(target, parsed, hashed, knownEmails, errors, pipeline);
+                    } catch (RuntimeException | Error e) {
+                        pipeline.abort(e);
+                    } finally {
+                        if (runningWorkers.decrementAndGet() == 0) {
+                            pipeline.put(hashed, END_OF_ROWS);
+                        }
+                    }
+                });
+            }
+
+            int imported = insertRows(target, hashed, errors, pipeline);
+            awaitReader(reader);
+            if (readError.get() != null && imported == 0) {
+                throw readError.get();
+            }
+            if (imported > 0) {
+                ReferenceDataCache.getInstance().requestRefresh(target.referenceEntity);
+            }
+
+            List<RowError> sortedErrors = new ArrayList<>(errors);
+            sortedErrors.sort(Comparator.comparingInt(RowError::lineNumber));
+            Report report = new Report(rowsRead.get(), imported, sortedErrors,
+                    readError.get() == null ? null : readError.get().getMessage(), System.nanoTime() - startedAt);
+            LOGGER.info(String.format("Imported %s rows: %s", target.table, report));
+            return report;
+        } finally {
+            pipeline.abort(null);
+            executor.shutdownNow();
+        }
+    }
+
+    private Set<String> loadExistingEmails(Target target) {
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        for (String email : dbManager.query("SELECT email FROM " + target.table, rs -> rs.getString(1))) {
+            if (email != null) {
+                emails.add(email.toLowerCase(Locale.ROOT));
+            }
+        }
+        return emails;
+    }
+
+    private void readFile(Path csvFile, BlockingQueue<ParsedLine> parsed, AtomicInteger rowsRead,
+                          Pipeline pipeline) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null && !pipeline.isAborted()) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = parseLine(line);
+                if (lineNumber == 1 && fields[0].trim().equalsIgnoreCase("name")) {
+                    continue;
+                }
+                rowsRead.incrementAndGet();
+                pipeline.put(parsed, new ParsedLine(lineNumber, fields));
+            }
+        }
+    }
+
+    private void validateAndHash(Target target, BlockingQueue<ParsedLine> parsed, BlockingQueue<ImportRow> hashed,
+                                 Set<String> knownEmails, ConcurrentLinkedQueue<RowError> errors, Pipeline pipeline) {
+        ParsedLine line;
+        while ((line = pipeline.take(parsed)) != null && line != END_OF_FILE) {
+            ImportRow row = new ImportRow(line.lineNumber);
+            String error = validate(target, line.fields, row);
+            // Claim the email last, so a row rejected for another reason does not block a later valid one
+            if (error == null && !knownEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+                error = "Duplicate email " + row.email;
+            }
+            if (error != null) {
+                errors.add(new RowError(line.lineNumber, error));
+                continue;
+            }
+
+            row.passwordHash = passwordHasher.hash(row.password);
+            row.password = null;
+            pipeline.put(hashed, row);
+        }
+    }
+
+    private static String validate(Target target, String[] fields, ImportRow row) {
+        if (fields.length < 4 || fields.length > 5) {
+            return "Expected 4 or 5 columns but found " + fields.length;
+        }
+        row.name = fields[0].trim();
+        row.email = fields[1].trim();
+        String detail = fields[2].trim();
+        row.password = fields[3];
+
+        if (row.name.isEmpty()) {
+            return "Name is required";
+        }
+        if (!Person.isValidEmailAddress(row.email)) {
+            return "Invalid email " + row.email;
+        }
+        if (row.password.isEmpty()) {
+            return "Password is required";
+        }
+        if (target == Target.STUDENT) {
+            try {
+                row.detail = Date.valueOf(detail);
+            } catch (IllegalArgumentException e) {
+                return "Date of birth must be YYYY-MM-DD: " + detail;
+            }
+        } else {
+            if (detail.isEmpty()) {
+                return "Department is required";
+            }
+            row.detail = detail;
+        }
+
+        row.active = true;
+        if (fields.length == 5 && !fields[4].isBlank()) {
+            switch (fields[4].trim().toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "1" -> row.active = true;
+                case "false", "no", "0" -> row.active = false;
+                default -> {
+                    return "Active must be true or false: " + fields[4];
+                }
+            }
+        }
+        return null;
+    }
+
+    private int insertRows(Target target, BlockingQueue<ImportRow> hashed, ConcurrentLinkedQueue<RowError> errors,
+                           Pipeline pipeline) {
+        String sql = target.insertSql();
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        long batchStartedAt = 0;
+        int imported = 0;
+
+        try {
+            boolean finished = false;
+            while (!finished) {
+                ImportRow row = pipeline.poll(hashed);
+                if (pipeline.isAborted()) {
+                    break;
+                }
+                if (row == END_OF_ROWS) {
+                    finished = true;
+                } else if (row != null) {
+                    if (batch.isEmpty()) {
+                        batchStartedAt = System.nanoTime();
+                    }
+                    batch.add(row);
+                }
+
+                // A partial batch waits for more rows unless the input is done or it has waited too long
+                boolean stale = !batch.isEmpty()
+                        && System.nanoTime() - batchStartedAt >= TimeUnit.MILLISECONDS.toNanos(PARTIAL_FLUSH_MILLIS);
+                if (batch.size() >= BATCH_SIZE || (!batch.isEmpty() && finished) || stale) {
+                    imported += insertBatch(sql, batch, errors);
+                    batch.clear();
+                }
+            }
+        } catch (SQLException e) {
+            pipeline.abort(e);
+        }
+
+        pipeline.rethrowFailure();
+        return imported;
+    }
+
+    /**
+     * Borrows a connection for just this batch, so a long import does not hold one from the pool
+     * while it waits on hashing.
+     */
+    private int insertBatch(String sql, List<ImportRow> batch, ConcurrentLinkedQueue<RowError> errors)
+            throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                return flush(conn, pstmt, batch, errors);
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch in one transaction. If the database rejects it, the batch is rolled back and
+     * retried row by row so each failing row can be reported.
+     */
+    private int flush(Connection conn, PreparedStatement pstmt, List<ImportRow> batch,
+                      ConcurrentLinkedQueue<RowError> errors) throws SQLException {
+        try {
+            for (ImportRow row : batch) {
+                bind(pstmt, row);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            return batch.size();
+        } catch (SQLException e) {
+            pstmt.clearBatch();
+            conn.rollback();
+            LOGGER.log(Level.FINE, "Batch insert failed, retrying rows individually", e);
+        }
+
+        int imported = 0;
+        for (ImportRow row : batch) {
+            try {
+                bind(pstmt, row);
+                pstmt.executeUpdate();
+                conn.commit();
+                imported++;
+            } catch (SQLException e) {
+                conn.rollback();
+                errors.add(new RowError(row.lineNumber, e.getMessage()));
+            }
+        }
+        return imported;
+    }
+
+    private static void bind(PreparedStatement pstmt, ImportRow row) throws SQLException {
+        pstmt.setString(1, row.name);
+        pstmt.setString(2, row.email);
+        pstmt.setObject(3, row.detail);
+        pstmt.setString(4, row.passwordHash);
+        pstmt.setBoolean(5, row.active);
+    }
+
+    private static void awaitReader(Future<?> reader) throws IOException {
+        try {
+            reader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("Failed to read import file", e.getCause());
+        }
+    }
+
+    /**
+     * Splits one CSV line. Fields may be quoted, with doubled quotes inside quoted fields.
+     */
+    static String[] parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Outcome of one import. Rows per second covers the whole run, including hashing.
+     */
+    public static class Report {
+        private final int rowsRead;
+        private final int importedCount;
+        private final List<RowError> errors;
+        private final String readError;
+        private final long elapsedNanos;
+
+        private Report(int rowsRead, int importedCount, List<RowError> errors, String readError, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.importedCount = importedCount;
+            this.errors = Collections.unmodifiableList(errors);
+            this.readError = readError;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return Whether the whole file was read; when false only part of it was imported
+         */
+        public boolean isComplete() {
+            return readError == null;
+        }
+
+        /**
+         * @return Why reading stopped early, or null if the whole file was read
+         */
+        public String getReadError() {
+            return readError;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        /**
+         * @return Rejected rows in file order
+         */
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rowsRead * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+
+        /**
+         * Writes the rejected rows as CSV with a {@code line,error} header.
+         */
+        public void writeErrorReport(Writer writer) throws IOException {
+            writer.write("line,error\n");
+            for (RowError error : errors) {
+                writer.write(error.lineNumber() + ",\"" + error.message().replace("\"", "\"\"") + "\"\n");
+            }
+            writer.flush();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("read=%d imported=%d rejected=%d elapsed=%dms rate=%.1f rows/s%s",
+                    rowsRead, importedCount, errors.size(), getElapsedMillis(), getRowsPerSecond(),
+                    readError == null ? "" : " incomplete: " + readError);
+        }
+    }
+
+    public record RowError(int lineNumber, String message) {
+    }
+
+    private record ParsedLine(int lineNumber, String[] fields) {
+    }
+
+    private static class ImportRow {
+        private final int lineNumber;
+        private String name;
+        private String email;
+        private Object detail;
+        private String password;
+        private String passwordHash;
+        private boolean active;
+
+        private ImportRow(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    /**
+     * Shared stop flag for the stages. Queue operations give up once any stage has failed, so no
+     * stage stays blocked on a queue whose other end has gone away.
+     */
+    private static class Pipeline {
+        private volatile boolean aborted;
+        private volatile Throwable failure;
+
+        private boolean isAborted() {
+            return aborted;
+        }
+
+        private void abort(Throwable cause) {
+            if (cause != null && failure == null) {
+                failure = cause;
+            }
+            aborted = true;
+        }
+
+        private <T> void put(BlockingQueue<T> queue, T item) {
+            try {
+                while (!aborted && !queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // Back-pressure: wait for the next stage to make room
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+            }
+        }
+
+        private <T> T take(BlockingQueue<T> queue) {
+            try {
+                while (!aborted) {
+                    T item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        return item;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+            }
+            return null;
+        }
+
+        private <T> T poll(BlockingQueue<T> queue) {
+            try {
+                return queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                return null;
+            }
+        }
+
+        private void rethrowFailure() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw new RuntimeException("Import failed", failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package Utilities;
+
+import javax.swing.SwingUtilities;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide id to name lookups for students, instructors and courses, so dialogs can fill their
+ * pickers without querying. Each entity is loaded on first use and then kept current by fetching only
+ * rows whose lastUpdated is at or after the newest one already seen; a full reload happens when the row
+ * count shows deletions. Refreshes run every referenceData.refreshIntervalSeconds, after course changes,
+ * and when asked for after inserting people. Listeners are told about new data on the event dispatch thread.
+ */
+public class ReferenceDataCache {
+    private static final Logger LOGGER = Logger.getLogger(ReferenceDataCache.class.getName());
+
+    private static final long REFRESH_INTERVAL_SECONDS = Long.getLong("referenceData.refreshIntervalSeconds", 60L);
+
+    public enum Entity {
+        STUDENT("student", "studentId", "studentName", null),
+        INSTRUCTOR("instructor", "instructorId", "instructorName", null),
+        COURSE("course", "courseId", "courseName", "instructorId");
+
+        private final String table;
+        private final String idColumn;
+        private final String nameColumn;
+        private final String ownerColumn;
+
+        Entity(String table, String idColumn, String nameColumn, String ownerColumn) {
+            this.table = table;
+            this.idColumn = idColumn;
+            this.nameColumn = nameColumn;
+            this.ownerColumn = ownerColumn;
+        }
+
+        private String selectSql(boolean delta) {
+            return "SELECT " + idColumn + ", " + nameColumn + ", " + (ownerColumn != null ? ownerColumn : "0") +
+                    ", lastUpdated FROM " + table + (delta ? " WHERE lastUpdated >= ?" : "") + " ORDER BY " + idColumn;
+        }
+
+        private String countSql() {
+            return "SELECT COUNT(*) FROM " + table;
+        }
+    }
+
+    private static ReferenceDataCache instance;
+
+    private final DatabaseConnectionManager dbManager;
+    private final ScheduledExecutorService refresher;
+    private final Map<Entity, Holder> holders = new EnumMap<>(Entity.class);
+
+    private ReferenceDataCache() {
+        this.dbManager = DatabaseConnectionManager.getInstance();
+        for (Entity entity : Entity.values()) {
+            holders.put(entity, new Holder());
+        }
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reference-data-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (REFRESH_INTERVAL_SECONDS > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshLoaded,
+                    REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        DataChangeNotifier.getInstance().addListener(change -> {
+            if (change == DataChange.COURSE) {
+                requestRefresh(Entity.COURSE);
+            }
+        });
+    }
+
+    public static synchronized ReferenceDataCache getInstance() {
+        if (instance == null) {
+            instance = new ReferenceDataCache();
+        }
+        return instance;
+    }
+
+    /**
+     * @return The entity's current data, loading it on the calling thread the first time
+     */
+    public ReferenceData get(Entity entity) {
+        Holder holder = holders.get(entity);
+        ReferenceData data = holder.current;
+        if (data != null) {
+            return data;
+        }
+        synchronized (holder) {
+            if (holder.current == null) {
+                publish(entity, load(entity, null));
+            }
+            return holder.current;
+        }
+    }
+
+    /**
+     * @return The entity's current data, or null if it has not been loaded yet. Never queries.
+     */
+    public ReferenceData peek(Entity entity) {
+        return holders.get(entity).current;
+    }
+
+    public String getName(Entity entity, int id) {
+        return get(entity).getName(id);
+    }
+
+    /**
+     * Queues a background refresh of the entity, or its first load, unless one is already queued.
+     */
+    public void requestRefresh(Entity entity) {
+        Holder holder = holders.get(entity);
+        if (holder.refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                holder.refreshQueued.set(false);
+                try {
+                    refresh(entity);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Reference data refresh failed for " + entity, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a listener told on the event dispatch thread whenever the entity's data is replaced.
+     */
+    public void addListener(Entity entity, Consumer<ReferenceData> listener) {
+        holders.get(entity).listeners.add(listener);
+    }
+
+    public void removeListener(Entity entity, Consumer<ReferenceData> listener) {
+        holders.get(entity).listeners.remove(listener);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshLoaded() {
+        for (Entity entity : Entity.values()) {
+            if (holders.get(entity).current != null) {
+                requestRefresh(entity);
+            }
+        }
+    }
+
+    private void refresh(Entity entity) {
+        Holder holder = holders.get(entity);
+        synchronized (holder) {
+            ReferenceData previous = holder.current;
+            if (previous == null) {
+                publish(entity, load(entity, null));
+                return;
+            }
+
+            ReferenceData merged = previous.merge(load(entity, previous.lastUpdated));
+            Integer count = dbManager.queryForObject(entity.countSql(), rs -> rs.getInt(1));
+            if (count != null && count != merged.size()) {
+                merged = load(entity, null);
+            }
+            if (!merged.sameAs(previous)) {
+                publish(entity, merged);
+            } else {
+                holder.current = merged;
+            }
+        }
+    }
+
+    private void publish(Entity entity, ReferenceData data) {
+        Holder holder = holders.get(entity);
+        holder.current = data;
+        if (!holder.listeners.isEmpty()) {
+            SwingUtilities.invokeLater(() -> {
+                for (Consumer<ReferenceData> listener : holder.listeners) {
+                    listener.accept(data);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param since Load only rows updated at or after this time, or everything when null
+     */
+    private ReferenceData load(Entity entity, Timestamp since) {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp newest = since;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(entity.selectSql(since != null))) {
+            if (since != null) {
+                pstmt.setTimestamp(1, since);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Object[]{rs.getInt(1), rs.getString(2), rs.getInt(3)});
+                    Timestamp updated = rs.getTimestamp(4);
+                    if (updated != null && (newest == null || updated.after(newest))) {
+                        newest = updated;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load " + entity.table + " reference data", e);
+        }
+
+        int[] ids = new int[rows.size()];
+        String[] names = new String[rows.size()];
+        int[] ownerIds = new int[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Integer) row[0];
+            names[i] = (String) row[1];
+            ownerIds[i] = (Integer) row[2];
+        }
+        return new ReferenceData(ids, names, ownerIds, newest);
+    }
+
+    /**
+     * Immutable id to name table sorted by id. Lookups are binary searches over a primitive id array.
+     * The owner id is the course's instructor for courses and 0 otherwise.
+     */
+    public static final class ReferenceData {
+        private final int[] ids;
+        private final String[] names;
+        private final int[] ownerIds;
+        private final Timestamp lastUpdated;
+
+        private ReferenceData(int[] ids, String[] names, int[] ownerIds, Timestamp lastUpdated) {
+            this.ids = ids;
+            this.names = names;
+            this.ownerIds = ownerIds;
+            this.lastUpdated = lastUpdated;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public int idAt(int index) {
+            return ids[index];
+        }
+
+        public String nameAt(int index) {
+            return names[index];
+        }
+
+        public int ownerIdAt(int index) {
+            return ownerIds[index];
+        }
+
+        /**
+         * @return Position of the id, or a negative number if it is not present
+         */
+        public int indexOf(int id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        /**
+         * @return The name for the id, or null if it is not present
+         */
+        public String getName(int id) {
+            int index = indexOf(id);
+            return index >= 0 ? names[index] : null;
+        }
+
+        /**
+         * Overlays changed rows on this table. Both tables are sorted by id, so this is a single merge pass.
+         */
+        private ReferenceData merge(ReferenceData changes) {
+            if (changes.size() == 0) {
+                return this;
+            }
+            int capacity = ids.length + changes.ids.length;
+            int[] mergedIds = new int[capacity];
+            String[] mergedNames = new String[capacity];
+            int[] mergedOwners = new int[capacity];
+
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < ids.length || j < changes.ids.length) {
+                boolean takeChange = j < changes.ids.length && (i >= ids.length || changes.ids[j] <= ids[i]);
+                if (takeChange) {
+                    if (i < ids.length && changes.ids[j] == ids[i]) {
+                        i++;
+                    }
+                    mergedIds[n] = changes.ids[j];
+                    mergedNames[n] = changes.names[j];
+                    mergedOwners[n] = changes.ownerIds[j];
+                    j++;
+                } else {
+                    mergedIds[n] = ids[i];
+                    mergedNames[n] = names[i];
+                    mergedOwners[n] = ownerIds[i];
+                    i++;
+                }
+                n++;
+            }
+            return new ReferenceData(Arrays.copyOf(mergedIds, n), Arrays.copyOf(mergedNames, n),
+                    Arrays.copyOf(mergedOwners, n), changes.lastUpdated);
+        }
+
+        private boolean sameAs(ReferenceData other) {
+            return Arrays.equals(ids, other.ids) && Arrays.equals(names, other.names)
+                    && Arrays.equals(ownerIds, other.ownerIds);
+        }
+    }
+
+    private static class Holder {
+        private final AtomicBoolean refreshQueued = new AtomicBoolean();
+        private final List<Consumer<ReferenceData>> listeners = new CopyOnWriteArrayList<>();
+        private volatile ReferenceData current;
+    }
+}
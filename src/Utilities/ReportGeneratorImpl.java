@@ -1,42 +1,69 @@
 package Utilities;
 
-import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 public class ReportGeneratorImpl implements ReportGenerator {
     private CourseAnalytics courseAnalytics;
+    private CourseAnalyticsImpl courseMarks;
+
+    // Shared so every report window uses one cache and one change listener
+    private static CachingCourseAnalytics sharedAnalytics;
 
     public ReportGeneratorImpl() {
-        this.courseAnalytics = new CourseAnalyticsImpl();
+        this.courseAnalytics = sharedAnalytics();
+        this.courseMarks = new CourseAnalyticsImpl();
+    }
+
+    /**
+     * The cache sits in front of the snapshot so repeated reports reuse the reduced results, concurrent
+     * callers share one load, and hit rates and load times are available from getStats().
+     */
+    static synchronized CachingCourseAnalytics sharedAnalytics() {
+        if (sharedAnalytics == null) {
+            sharedAnalytics = new CachingCourseAnalytics(new CourseAnalyticsImpl(AnalyticsSnapshotService.getInstance()));
+        }
+        return sharedAnalytics;
     }
 
+    /**
+     * Charts the map's courseEnrollments when it has the course name to count shape,
+     * otherwise loads the typed enrollment stats in the background.
+     */
     @Override
     public void generateBarChart(Map<String, Object> data) {
-        Map<String, Integer> courseEnrollments = (Map<String, Integer>) data.get("courseEnrollments");
+        Object courseEnrollments = data == null ? null : data.get("courseEnrollments");
+        if (!(courseEnrollments instanceof Map)) {
+            AsyncDataService.getInstance().submit(
+                    courseAnalytics::getCourseEnrollmentStats,
+                    this::showBarChart,
+                    e -> showChartError("bar", e));
+            return;
+        }
 
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        courseEnrollments.forEach((courseName, enrollments) ->
-                dataset.addValue(enrollments, "Enrollments", courseName)
+        ((Map<?, ?>) courseEnrollments).forEach((courseName, enrollments) ->
+                dataset.addValue((Number) enrollments, "Enrollments", String.valueOf(courseName))
         );
+        showBarChart(dataset);
+    }
 
-        JFreeChart barChart = ChartFactory.createBarChart(
-                "Course Enrollments",
-                "Courses",
-                "Number of Students",
-                dataset,
-                PlotOrientation.VERTICAL,
-                false, true, false
-        );
+    private void showBarChart(List<CourseEnrollmentStats> courses) {
+        showBarChart(AnalyticsCharts.enrollmentDataset(courses));
+    }
+
+    private void showBarChart(DefaultCategoryDataset dataset) {
+        JFreeChart barChart = AnalyticsCharts.createEnrollmentBarChart("Course Enrollments", dataset);
 
         ChartPanel chartPanel = new ChartPanel(barChart);
         chartPanel.setPreferredSize(new Dimension(560, 370));
@@ -48,18 +75,34 @@ public class ReportGeneratorImpl implements ReportGenerator {
         chartFrame.setVisible(true);
     }
 
+    /**
+     * Charts the map's gradeDistribution when it has the grade to count shape,
+     * otherwise loads the typed grade histogram in the background.
+     */
     @Override
     public void generatePieChart(Map<String, Object> data) {
-        Map<String, Integer> gradeDistribution = (Map<String, Integer>) data.get("gradeDistribution");
-
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        gradeDistribution.forEach(dataset::setValue);
+        Object gradeDistribution = data == null ? null : data.get("gradeDistribution");
+        if (!(gradeDistribution instanceof Map)) {
+            AsyncDataService.getInstance().submit(
+                    courseAnalytics::getGradeHistogram,
+                    this::showPieChart,
+                    e -> showChartError("pie", e));
+            return;
+        }
 
-        JFreeChart pieChart = ChartFactory.createPieChart(
-                "Grade Distribution",
-                dataset,
-                true, true, false
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+        ((Map<?, ?>) gradeDistribution).forEach((grade, count) ->
+                dataset.setValue(String.valueOf(grade), (Number) count)
         );
+        showPieChart(dataset);
+    }
+
+    private void showPieChart(int[] gradeHistogram) {
+        showPieChart(AnalyticsCharts.gradeDataset(gradeHistogram));
+    }
+
+    private void showPieChart(DefaultPieDataset<String> dataset) {
+        JFreeChart pieChart = AnalyticsCharts.createGradePieChart("Grade Distribution", dataset);
 
         ChartPanel chartPanel = new ChartPanel(pieChart);
         chartPanel.setPreferredSize(new Dimension(560, 370));
@@ -71,39 +114,82 @@ public class ReportGeneratorImpl implements ReportGenerator {
         chartFrame.setVisible(true);
     }
 
+    private static void showChartError(String chartType, Throwable e) {
+        JOptionPane.showMessageDialog(null,
+                "Error generating " + chartType + " chart: " + e.getMessage(),
+                "Chart Generation Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Streams the dataset to a file chosen by the user. A .json file name selects JSON, anything else CSV.
+     */
+    private void exportDataset(JFrame parent, StreamingExporter.Dataset dataset) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File(dataset.getFileName() + "." + StreamingExporter.Format.CSV.getExtension()));
+        if (fileChooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = fileChooser.getSelectedFile().toPath();
+        StreamingExporter.Format format = target.getFileName().toString().toLowerCase().endsWith(".json")
+                ? StreamingExporter.Format.JSON
+                : StreamingExporter.Format.CSV;
+
+        AsyncDataService.getInstance().submit(
+                () -> new StreamingExporter().export(dataset, format, target),
+                result -> JOptionPane.showMessageDialog(parent,
+                        String.format("Exported %d rows in %d ms (%.1f rows/s).",
+                                result.getRowCount(), result.getElapsedMillis(), result.getRowsPerSecond()),
+                        "Export Complete", JOptionPane.INFORMATION_MESSAGE),
+                e -> JOptionPane.showMessageDialog(parent,
+                        "Error exporting " + dataset.getFileName() + ": " + e.getMessage(),
+                        "Export Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Loads every section in the background, then builds the report window on the event dispatch thread.
+     */
     @Override
     public void generateDetailedReport() {
+        AsyncDataService.getInstance().submit(
+                () -> new ReportData(
+                        courseAnalytics.getCourseEnrollmentStats(),
+                        courseAnalytics.getGradeHistogram(),
+                        courseAnalytics.getCourseGradeStats(),
+                        courseMarks.getStudentCourseMarks()),
+                this::showDetailedReport,
+                e -> JOptionPane.showMessageDialog(null,
+                        "Error generating report: " + e.getMessage(),
+                        "Report Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showDetailedReport(ReportData data) {
         // Create a tabbed pane to hold different analytics views
         JFrame reportFrame = new JFrame("Comprehensive University Analytics");
         JTabbedPane tabbedPane = new JTabbedPane();
 
         // Enrollment Bar Chart
-        Map<String, Object> enrollmentStats = courseAnalytics.generateEnrollmentStatistics();
-        generateBarChart(enrollmentStats);
+        showBarChart(data.enrollmentStats);
 
         // Grade Distribution Pie Chart
-        Map<String, Object> gradeDistribution = courseAnalytics.generateGradeDistribution();
-        generatePieChart(gradeDistribution);
+        showPieChart(data.gradeHistogram);
 
         // Average Grades by Course Table
-        List<Map<String, Object>> averageGrades = courseAnalytics.getAverageGradesByCourse();
         String[] averageGradeColumns = {"Course Name", "Average GPA", "Total Students"};
         DefaultTableModel averageGradeModel = new DefaultTableModel(averageGradeColumns, 0);
-        for (Map<String, Object> courseGrade : averageGrades) {
+        for (CourseGradeStats course : data.gradeStats) {
             averageGradeModel.addRow(new Object[]{
-                    courseGrade.get("courseName"),
-                    String.format("%.2f", (Double) courseGrade.get("averageGPA")),
-                    courseGrade.get("totalStudents")
+                    course.courseName(),
+                    String.format("%.2f", course.averageGradePoints()),
+                    course.enrollmentCount()
             });
         }
         JTable averageGradeTable = new JTable(averageGradeModel);
         tabbedPane.addTab("Average Grades", new JScrollPane(averageGradeTable));
 
         // Student Course Marks Table
-        List<Map<String, Object>> studentMarks = ((CourseAnalyticsImpl)courseAnalytics).getStudentCourseMarks();
         String[] studentMarksColumns = {"Student Name", "Course Name", "Grade"};
         DefaultTableModel studentMarksModel = new DefaultTableModel(studentMarksColumns, 0);
-        for (Map<String, Object> studentCourseGrade : studentMarks) {
+        for (Map<String, Object> studentCourseGrade : data.studentMarks) {
             studentMarksModel.addRow(new Object[]{
                     studentCourseGrade.get("studentName"),
                     studentCourseGrade.get("courseName"),
@@ -113,9 +199,35 @@ public class ReportGeneratorImpl implements ReportGenerator {
         JTable studentMarksTable = new JTable(studentMarksModel);
         tabbedPane.addTab("Student Course Marks", new JScrollPane(studentMarksTable));
 
-        reportFrame.add(tabbedPane);
+        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton exportMarksButton = new JButton("Export Student Marks...");
+        exportMarksButton.addActionListener(e ->
+                exportDataset(reportFrame, StreamingExporter.Dataset.STUDENT_COURSE_MARKS));
+        JButton exportSummariesButton = new JButton("Export Course Summaries...");
+        exportSummariesButton.addActionListener(e ->
+                exportDataset(reportFrame, StreamingExporter.Dataset.COURSE_SUMMARIES));
+        exportPanel.add(exportMarksButton);
+        exportPanel.add(exportSummariesButton);
+
+        reportFrame.add(exportPanel, BorderLayout.NORTH);
+        reportFrame.add(tabbedPane, BorderLayout.CENTER);
         reportFrame.setSize(800, 600);
         reportFrame.setLocationRelativeTo(null);
         reportFrame.setVisible(true);
     }
-}
\ No newline at end of file
+
+    private static class ReportData {
+        private final List<CourseEnrollmentStats> enrollmentStats;
+        private final int[] gradeHistogram;
+        private final List<CourseGradeStats> gradeStats;
+        private final List<Map<String, Object>> studentMarks;
+
+        private ReportData(List<CourseEnrollmentStats> enrollmentStats, int[] gradeHistogram,
+                           List<CourseGradeStats> gradeStats, List<Map<String, Object>> studentMarks) {
+            this.enrollmentStats = enrollmentStats;
+            this.gradeHistogram = gradeHistogram;
+            this.gradeStats = gradeStats;
+            this.studentMarks = studentMarks;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package Utilities;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Maps the current row of the result set
+     * @param rs Result set positioned on the row to map
+     * @return Mapped object for the row
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,92 @@
+package Utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One authenticated user's session.
+ * The identity fields are fixed at login; only the last-access time and the attribute map change,
+ * and both are safe to use from background threads.
+ */
+public final class Session {
+    private final String token;
+    private final int userId;
+    private final String username;
+    private final String userType;
+    private final long createdAt;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile long lastAccessedAt;
+    private volatile boolean idleExempt;
+
+    Session(String token, int userId, String username, String userType, long createdAt) {
+        this.token = token;
+        this.userId = userId;
+        this.username = username;
+        this.userType = userType;
+        this.createdAt = createdAt;
+        this.lastAccessedAt = createdAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Stores an attribute; a null value removes it.
+     */
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    public Object removeAttribute(String name) {
+        return attributes.remove(name);
+    }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+
+    boolean isIdleExempt() {
+        return idleExempt;
+    }
+
+    /**
+     * Keeps the session alive however long it is idle; it ends only when invalidated.
+     */
+    void setIdleExempt(boolean idleExempt) {
+        this.idleExempt = idleExempt;
+    }
+
+    @Override
+    public String toString() {
+        return "Session[" + username + ", " + userType + "]";
+    }
+}
@@ -0,0 +1,117 @@
+package Utilities;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds every logged-in session in the JVM, keyed by an unguessable token.
+ * Sessions idle for longer than the timeout are evicted by a background sweep and are also
+ * treated as expired by get() between sweeps. The desktop window's session is exempt; it lasts until logout.
+ */
+public class SessionRegistry {
+    private static final Logger LOGGER = Logger.getLogger(SessionRegistry.class.getName());
+
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("session.idleTimeoutMillis", 30 * 60_000L);
+    private static final long SWEEP_INTERVAL_MILLIS = Long.getLong("session.sweepIntervalMillis", 60_000L);
+    private static final int TOKEN_BYTES = 32;
+
+    private static SessionRegistry instance;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService sweeper;
+
+    public SessionRegistry(long idleTimeoutMillis, long sweepIntervalMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new SessionRegistry(IDLE_TIMEOUT_MILLIS, SWEEP_INTERVAL_MILLIS);
+        }
+        return instance;
+    }
+
+    public Session create(int userId, String username, String userType) {
+        String token = newToken();
+        Session session = new Session(token, userId, username, userType, System.currentTimeMillis());
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Looks a session up and marks it as used.
+     * @return The session, or null if the token is unknown or the session has expired
+     */
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (isExpired(session, now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * @return The removed session, or null if it was not registered
+     */
+    public Session invalidate(String token) {
+        return token == null ? null : sessions.remove(token);
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+        sessions.clear();
+    }
+
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Session session : sessions.values()) {
+            if (isExpired(session, now) && sessions.remove(session.getToken(), session)) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            LOGGER.log(Level.INFO, "Evicted {0} idle sessions", evicted);
+        }
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return idleTimeoutMillis > 0 && !session.isIdleExempt()
+                && now - session.getLastAccessedAt() > idleTimeoutMillis;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
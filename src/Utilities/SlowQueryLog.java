@@ -0,0 +1,376 @@
+package Utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes statements that take longer than a threshold to a rotating log file, with their bind values,
+ * the application method that ran them and the EXPLAIN plan.
+ * The executing thread only checks the threshold and, for a slow statement, captures its caller and binds;
+ * formatting, file writes and EXPLAIN run on one background thread with its own database connection.
+ * Binds for columns that look like credentials or personal data are redacted. Each fingerprint is
+ * explained at most once per explain interval.
+ */
+public class SlowQueryLog {
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+
+    private static final int MAX_PENDING_ENTRIES = 256;
+    private static final int MAX_BIND_LENGTH = 64;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 5;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(SELECT|UPDATE|DELETE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+            "(\\w+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bLIKE)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Opens the connection EXPLAIN runs on. It is kept open between slow statements.
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final long thresholdNanos;
+    private final long explainIntervalMillis;
+    private final Pattern sensitiveColumns;
+    private final ConnectionFactory connectionFactory;
+    private final String filePattern;
+    private final int fileSizeBytes;
+    private final int fileCount;
+    private final ThreadPoolExecutor writer;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final LongAdder slowStatements = new LongAdder();
+    private final LongAdder droppedEntries = new LongAdder();
+
+    // Only touched on the writer thread
+    private FileHandler fileHandler;
+    private boolean fileUnavailable;
+    private Connection explainConnection;
+
+    /**
+     * @param filePattern FileHandler pattern, e.g. logs/slow-queries.%g.log
+     * @param sensitiveColumns Binds for columns whose name matches this are written as &lt;redacted&gt;
+     */
+    public SlowQueryLog(long thresholdMillis, long explainIntervalMillis, Pattern sensitiveColumns,
+                        ConnectionFactory connectionFactory, String filePattern, int fileSizeBytes, int fileCount) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explainIntervalMillis = explainIntervalMillis;
+        this.sensitiveColumns = sensitiveColumns;
+        this.connectionFactory = connectionFactory;
+        this.filePattern = filePattern;
+        this.fileSizeBytes = fileSizeBytes;
+        this.fileCount = fileCount;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_ENTRIES),
+                r -> {
+                    Thread thread = new Thread(r, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> droppedEntries.increment());
+    }
+
+    /**
+     * Called on the executing thread after every statement.
+     * @param binds Bind values by parameter index minus one; only read when the statement was slow
+     * @param batch Whether this was executeBatch, in which case binds hold only the last row added
+     */
+    void executed(String sql, Object[] binds, int bindCount, boolean batch, long elapsedNanos, boolean failed) {
+        if (elapsedNanos < thresholdNanos || sql == null || writer.isShutdown()) {
+            return;
+        }
+        slowStatements.increment();
+
+        Object[] capturedBinds = new Object[bindCount];
+        System.arraycopy(binds, 0, capturedBinds, 0, bindCount);
+        SlowStatement slow = new SlowStatement(LocalDateTime.now(), sql, capturedBinds, batch, elapsedNanos, failed,
+                findCaller(), Thread.currentThread().getName());
+        writer.execute(() -> write(slow));
+    }
+
+    public long getSlowStatementCount() {
+        return slowStatements.sum();
+    }
+
+    /**
+     * @return Slow statements not logged because the writer had fallen behind
+     */
+    public long getDroppedEntryCount() {
+        return droppedEntries.sum();
+    }
+
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(EXPLAIN_TIMEOUT_SECONDS * 2L, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        closeExplainConnection();
+        if (fileHandler != null) {
+            fileHandler.close();
+        }
+    }
+
+    private void write(SlowStatement slow) {
+        StringBuilder entry = new StringBuilder()
+                .append(TIMESTAMP.format(slow.loggedAt))
+                .append(String.format(Locale.ROOT, " slow statement %.1f ms%s (threshold %d ms)",
+                        slow.elapsedNanos / 1_000_000.0, slow.failed ? ", failed" : "",
+                        TimeUnit.NANOSECONDS.toMillis(thresholdNanos)))
+                .append("\n  Caller: ").append(slow.caller).append(" [").append(slow.threadName).append(']')
+                .append("\n  SQL: ").append(slow.sql.replaceAll("\\s+", " ").trim());
+        if (slow.binds.length > 0) {
+            entry.append(slow.batch ? "\n  Binds (last batch row only): " : "\n  Binds: ")
+                    .append(formatBinds(slow.sql, slow.binds));
+        }
+
+        String fingerprint = StatementMetrics.fingerprint(slow.sql);
+        if (EXPLAINABLE.matcher(slow.sql).find() && claimExplain(fingerprint)) {
+            entry.append("\n  Plan:");
+            appendPlan(entry, slow);
+        }
+
+        publish(entry.toString());
+    }
+
+    private boolean claimExplain(String fingerprint) {
+        long now = System.currentTimeMillis();
+        Long previous = lastExplained.get(fingerprint);
+        if (previous != null && now - previous < explainIntervalMillis) {
+            return false;
+        }
+        lastExplained.put(fingerprint, now);
+        return true;
+    }
+
+    /**
+     * Explains with the real bind values so the plan matches what was run; they never leave this process.
+     */
+    private void appendPlan(StringBuilder entry, SlowStatement slow) {
+        try {
+            if (explainConnection == null || explainConnection.isClosed()) {
+                explainConnection = connectionFactory.open();
+                explainConnection.setReadOnly(true);
+            }
+            try (PreparedStatement stmt = explainConnection.prepareStatement("EXPLAIN " + slow.sql)) {
+                stmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                for (int i = 0; i < slow.binds.length; i++) {
+                    stmt.setObject(i + 1, slow.binds[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columns = metaData.getColumnCount();
+                    entry.append("\n    ");
+                    for (int c = 1; c <= columns; c++) {
+                        entry.append(c > 1 ? " | " : "").append(metaData.getColumnLabel(c));
+                    }
+                    while (rs.next()) {
+                        entry.append("\n    ");
+                        for (int c = 1; c <= columns; c++) {
+                            entry.append(c > 1 ? " | " : "").append(rs.getString(c));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            entry.append("\n    EXPLAIN failed: ").append(e.getMessage());
+            closeExplainConnection();
+        }
+    }
+
+    private void closeExplainConnection() {
+        if (explainConnection != null) {
+            try {
+                explainConnection.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing EXPLAIN connection", e);
+            }
+            explainConnection = null;
+        }
+    }
+
+    private void publish(String entry) {
+        if (fileHandler == null && !fileUnavailable) {
+            try {
+                Path parent = Paths.get(filePattern).toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                fileHandler = new FileHandler(filePattern, fileSizeBytes, fileCount, true);
+                fileHandler.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                fileUnavailable = true;
+                LOGGER.log(Level.WARNING, "Cannot open slow query log " + filePattern + ", logging here instead", e);
+            }
+        }
+
+        if (fileHandler != null) {
+            fileHandler.publish(new LogRecord(Level.WARNING, entry));
+            fileHandler.flush();
+        } else {
+            LOGGER.warning(entry);
+        }
+    }
+
+    private String formatBinds(String sql, Object[] binds) {
+        boolean[] redact = sensitiveBinds(sql, binds.length);
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < binds.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            formatted.append(i + 1).append('=').append(redact[i] ? "<redacted>" : formatBind(binds[i]));
+        }
+        return formatted.append(']').toString();
+    }
+
+    private static String formatBind(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        if (value instanceof CharSequence) {
+            String text = value.toString();
+            return "'" + (text.length() > MAX_BIND_LENGTH ? text.substring(0, MAX_BIND_LENGTH) + "..." : text) + "'";
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Works out the column each placeholder is compared with or inserted into. A placeholder whose column
+     * can't be worked out is redacted whenever the statement mentions a sensitive column at all.
+     */
+    private boolean[] sensitiveBinds(String sql, int bindCount) {
+        // Blank out literals so a ? inside a string is not taken for a placeholder
+        Matcher literals = STRING_LITERAL.matcher(sql);
+        StringBuilder blanked = new StringBuilder(sql);
+        while (literals.find()) {
+            for (int i = literals.start(); i < literals.end(); i++) {
+                blanked.setCharAt(i, '_');
+            }
+        }
+        String text = blanked.toString();
+
+        List<Integer> placeholders = new ArrayList<>();
+        for (int i = text.indexOf('?'); i >= 0; i = text.indexOf('?', i + 1)) {
+            placeholders.add(i);
+        }
+
+        String[] columns = new String[placeholders.size()];
+        for (int p = 0; p < placeholders.size(); p++) {
+            int position = placeholders.get(p);
+            Matcher compared = COMPARED_COLUMN.matcher(text.substring(Math.max(0, position - 128), position));
+            if (compared.find()) {
+                columns[p] = compared.group(1);
+            }
+        }
+
+        Matcher insert = INSERT_COLUMNS.matcher(text);
+        if (insert.find()) {
+            String[] insertColumns = insert.group(1).split(",");
+            String[] values = insert.group(2).split(",", -1);
+            int offset = insert.start(2);
+            for (int v = 0; v < values.length; v++) {
+                int questionMark = values[v].indexOf('?');
+                if (questionMark >= 0 && v < insertColumns.length) {
+                    int p = placeholders.indexOf(offset + questionMark);
+                    if (p >= 0) {
+                        columns[p] = insertColumns[v].trim();
+                    }
+                }
+                offset += values[v].length() + 1;
+            }
+        }
+
+        boolean mentionsSensitive = sensitiveColumns.matcher(text).find();
+        boolean[] redact = new boolean[bindCount];
+        for (int i = 0; i < bindCount; i++) {
+            String column = i < columns.length ? columns[i] : null;
+            redact[i] = column != null ? sensitiveColumns.matcher(column).find() : mentionsSensitive;
+        }
+        return redact;
+    }
+
+    /**
+     * @return The first frame outside the JDK, the driver and the pool's own plumbing
+     */
+    private static String findCaller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !isInfrastructure(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("jdk.")
+                || className.startsWith("sun.") || className.startsWith("com.sun.") || className.startsWith("org.mariadb.")
+                || className.contains("$Proxy")
+                || className.equals(SlowQueryLog.class.getName())
+                || className.startsWith(StatementHandler.class.getName())
+                || className.startsWith(ConnectionPool.class.getName())
+                || className.equals(DatabaseConnectionManager.class.getName());
+    }
+
+    private static class SlowStatement {
+        private final LocalDateTime loggedAt;
+        private final String sql;
+        private final Object[] binds;
+        private final boolean batch;
+        private final long elapsedNanos;
+        private final boolean failed;
+        private final String caller;
+        private final String threadName;
+
+        private SlowStatement(LocalDateTime loggedAt, String sql, Object[] binds, boolean batch, long elapsedNanos,
+                              boolean failed, String caller, String threadName) {
+            this.loggedAt = loggedAt;
+            this.sql = sql;
+            this.binds = binds;
+            this.batch = batch;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+            this.caller = caller;
+            this.threadName = threadName;
+        }
+    }
+}
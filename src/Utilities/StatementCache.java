@@ -0,0 +1,141 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU cache of prepared statements for a single physical connection, keyed by SQL text.
+ * Statements taken with acquire() must be handed back with release() instead of being closed.
+ */
+public class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_MISSES = new LongAdder();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private long hits;
+    private long misses;
+
+    public StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the SQL, reusing a cached one when it is not already in use.
+     * @return Physical statement that must be passed back to release()
+     */
+    public synchronized PreparedStatement acquire(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits++;
+            TOTAL_HITS.increment();
+            cached.inUse = true;
+            return cached.statement;
+        }
+
+        misses++;
+        TOTAL_MISSES.increment();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null || maxSize <= 0) {
+            // Same SQL is already checked out on this connection; hand out an uncached statement.
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        statements.put(sql, cached);
+        return statement;
+    }
+
+    /**
+     * Returns a statement obtained from acquire(), closing it if it is not (or no longer) cached.
+     */
+    public void release(String sql, PreparedStatement statement) {
+        synchronized (this) {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.statement == statement) {
+                cached.inUse = false;
+                try {
+                    statement.clearParameters();
+                    statement.clearWarnings();
+                    return;
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Dropping cached statement that could not be reset", e);
+                    statements.remove(sql);
+                }
+            }
+        }
+        closeQuietly(statement);
+    }
+
+    public synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public static long getTotalHits() {
+        return TOTAL_HITS.sum();
+    }
+
+    public static long getTotalMisses() {
+        return TOTAL_MISSES.sum();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing cached statement", e);
+        }
+    }
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private void evict() {
+            // Statements still checked out are closed when they are released.
+            if (!inUse) {
+                closeQuietly(statement);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package Utilities;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxy handler for statements handed out by a pooled connection.
+ * close() runs the supplied closer, which either returns the statement to a cache or closes it.
+ * When metrics are enabled, execute calls are timed and rows read from their result sets are counted.
+ * When the slow query log is enabled, bind values are also kept so a slow execution can be logged with them.
+ */
+class StatementHandler implements InvocationHandler {
+
+    interface Closer {
+        void close(Statement proxy, Statement target) throws SQLException;
+    }
+
+    private static final Object[] NO_BINDS = new Object[0];
+
+    private final Statement target;
+    private final String sql;
+    private final Closer closer;
+    private final StatementLeakDetector leakDetector;
+    private final StatementMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+    private Object[] binds;
+    private int bindCount;
+    private StatementMetrics.SqlStats lastExecuted;
+    private RowCounter openRows;
+    private boolean closed;
+
+    private StatementHandler(Statement target, String sql, Closer closer, StatementLeakDetector leakDetector,
+                             StatementMetrics metrics, SlowQueryLog slowQueryLog) {
+        this.target = target;
+        this.sql = sql;
+        this.closer = closer;
+        this.leakDetector = leakDetector;
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+        this.binds = slowQueryLog != null && target instanceof PreparedStatement ? new Object[8] : null;
+    }
+
+    /**
+     * @param metrics Where executions are recorded, or null to skip timing
+     * @param slowQueryLog Where slow executions are logged, or null to not check
+     */
+    static Statement wrap(Statement target, String sql, Closer closer, StatementLeakDetector leakDetector,
+                          StatementMetrics metrics, SlowQueryLog slowQueryLog) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        Statement proxy = (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(target, sql, closer, leakDetector, metrics, slowQueryLog)
+        );
+        leakDetector.opened(proxy, sql);
+        return proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                close(proxy);
+                return null;
+            case "isClosed":
+                return closed;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "PooledStatement[" + sql + "]";
+            default:
+                break;
+        }
+
+        if (closed) {
+            throw new SQLException("Statement has already been closed");
+        }
+
+        if (binds != null) {
+            captureBind(method.getName(), args);
+        }
+        if (metrics != null || slowQueryLog != null) {
+            if (method.getName().startsWith("execute")) {
+                return timedExecute(method, args);
+            }
+            if ("getResultSet".equals(method.getName())) {
+                return countRows((ResultSet) invokeTarget(method, args), lastExecuted);
+            }
+        }
+        return invokeTarget(method, args);
+    }
+
+    private void captureBind(String methodName, Object[] args) {
+        if ("clearParameters".equals(methodName)) {
+            bindCount = 0;
+            return;
+        }
+        if (!methodName.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer)) {
+            return;
+        }
+
+        int index = (Integer) args[0] - 1;
+        if (index < 0) {
+            return;
+        }
+        if (index >= binds.length) {
+            binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+        }
+        binds[index] = "setNull".equals(methodName) ? null : args[1];
+        bindCount = Math.max(bindCount, index + 1);
+    }
+
+    private Object timedExecute(Method method, Object[] args) throws Throwable {
+        // Plain statements carry their SQL on each execute call rather than on the statement
+        String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+        StatementMetrics.SqlStats stats = metrics != null ? metrics.statsFor(executedSql) : null;
+        if (stats == null && (slowQueryLog == null || executedSql == null)) {
+            return invokeTarget(method, args);
+        }
+
+        flushRows();
+        lastExecuted = stats;
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invokeTarget(method, args);
+            failed = false;
+            return result instanceof ResultSet ? countRows((ResultSet) result, stats) : result;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            if (stats != null) {
+                stats.recordExecution(elapsedNanos, failed);
+            }
+            if (slowQueryLog != null) {
+                slowQueryLog.executed(executedSql, binds != null ? binds : NO_BINDS, binds != null ? bindCount : 0,
+                        method.getName().endsWith("Batch"), elapsedNanos, failed);
+            }
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResultSet countRows(ResultSet resultSet, StatementMetrics.SqlStats stats) {
+        if (resultSet == null || stats == null) {
+            return resultSet;
+        }
+        flushRows();
+        openRows = new RowCounter(resultSet, stats);
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                openRows
+        );
+    }
+
+    private void flushRows() {
+        if (openRows != null) {
+            openRows.flush();
+            openRows = null;
+        }
+    }
+
+    private synchronized void close(Object proxy) throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushRows();
+        leakDetector.closed(proxy);
+        closer.close((Statement) proxy, target);
+    }
+
+    /**
+     * Counts rows as the caller reads them and adds the total to the statement's stats once,
+     * when the result set is exhausted or closed or the statement moves on.
+     */
+    private static class RowCounter implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementMetrics.SqlStats stats;
+        private long rows;
+        private boolean flushed;
+
+        private RowCounter(ResultSet target, StatementMetrics.SqlStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    flush();
+                    break;
+                default:
+                    break;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if ("next".equals(method.getName())) {
+                if ((Boolean) result) {
+                    rows++;
+                } else {
+                    flush();
+                }
+            }
+            return result;
+        }
+
+        private void flush() {
+            if (!flushed) {
+                flushed = true;
+                stats.recordRows(rows);
+            }
+        }
+    }
+}
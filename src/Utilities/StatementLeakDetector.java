@@ -0,0 +1,88 @@
+package Utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs the call site of any statement that stays open longer than a threshold.
+ * A threshold of zero or less disables tracking, which avoids capturing a stack trace per statement.
+ */
+public class StatementLeakDetector {
+    private static final Logger LOGGER = Logger.getLogger(StatementLeakDetector.class.getName());
+
+    private final long thresholdMillis;
+    private final Map<Object, OpenStatement> openStatements = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scanner;
+
+    public StatementLeakDetector(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+
+        if (thresholdMillis > 0) {
+            long period = Math.max(1000, thresholdMillis / 2);
+            this.scanner = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "statement-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scanner.scheduleWithFixedDelay(this::scan, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.scanner = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return scanner != null;
+    }
+
+    public void opened(Object statement, String sql) {
+        if (isEnabled()) {
+            openStatements.put(statement, new OpenStatement(sql, new Throwable("Statement opened here")));
+        }
+    }
+
+    public void closed(Object statement) {
+        if (isEnabled()) {
+            openStatements.remove(statement);
+        }
+    }
+
+    public int getOpenCount() {
+        return openStatements.size();
+    }
+
+    public void shutdown() {
+        if (scanner != null) {
+            scanner.shutdownNow();
+        }
+        openStatements.clear();
+    }
+
+    private void scan() {
+        long now = System.currentTimeMillis();
+        for (OpenStatement open : openStatements.values()) {
+            if (!open.reported && now - open.openedAt >= thresholdMillis) {
+                open.reported = true;
+                LOGGER.log(Level.WARNING, "Possible statement leak: open for " + (now - open.openedAt)
+                        + "ms, SQL: " + open.sql, open.callSite);
+            }
+        }
+    }
+
+    private static class OpenStatement {
+        private final String sql;
+        private final Throwable callSite;
+        private final long openedAt;
+        private volatile boolean reported;
+
+        private OpenStatement(String sql, Throwable callSite) {
+            this.sql = sql;
+            this.callSite = callSite;
+            this.openedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package Utilities;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Call counts, rows returned and latency percentiles for every SQL statement run through the pool.
+ * Statements are grouped by fingerprint: the SQL with literals replaced by ? and whitespace collapsed,
+ * so the same query built with different inline values is counted once.
+ * Each fingerprint is published as an MXBean under {@value #JMX_DOMAIN}:type=StatementMetrics and a
+ * summary of the slowest statements is logged periodically.
+ * The per-execution cost is two nanoTime calls and a few uncontended counter updates; the fingerprint is
+ * resolved once per distinct SQL string.
+ */
+public class StatementMetrics {
+    private static final Logger LOGGER = Logger.getLogger(StatementMetrics.class.getName());
+
+    static final String JMX_DOMAIN = "Utilities";
+    private static final String OVERFLOW_FINGERPRINT = "<other statements>";
+    private static final int LOG_SUMMARY_LIMIT = 20;
+    private static final ObjectName SUMMARY_NAME = objectName(JMX_DOMAIN + ":type=StatementMetrics,name=Summary");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxFingerprints;
+    private final boolean registerMBeans;
+    private final Map<String, SqlStats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, SqlStats> byFingerprint = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ScheduledExecutorService reporter;
+    private long lastLoggedCalls;
+
+    /**
+     * @param maxFingerprints Distinct fingerprints tracked; later ones share a single overflow entry
+     * @param logIntervalSeconds How often to log the summary, or 0 to never log it
+     * @param registerMBeans Whether to publish the metrics over JMX
+     */
+    public StatementMetrics(int maxFingerprints, long logIntervalSeconds, boolean registerMBeans) {
+        this.maxFingerprints = maxFingerprints;
+        this.registerMBeans = registerMBeans;
+
+        if (registerMBeans) {
+            register(SUMMARY_NAME, new Summary());
+        }
+
+        if (logIntervalSeconds > 0) {
+            this.reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "statement-metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleWithFixedDelay(this::logSummaryIfChanged,
+                    logIntervalSeconds, logIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.reporter = null;
+        }
+    }
+
+    /**
+     * @return Stats the statement's executions are recorded against, or null for a statement without SQL
+     */
+    SqlStats statsFor(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        SqlStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+
+        stats = statsForFingerprint(fingerprint(sql));
+        // Statements built by concatenating values would grow this map without bound
+        if (bySql.size() < maxFingerprints * 4) {
+            bySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Normalises SQL so statements that differ only in literal values or formatting compare equal.
+     */
+    public static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("(?+)");
+    }
+
+    /**
+     * @return One snapshot per fingerprint, slowest total time first
+     */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (SqlStats stats : byFingerprint.values()) {
+            snapshots.add(stats.snapshot());
+        }
+        snapshots.sort(Comparator.comparingDouble(Snapshot::getTotalMillis).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Forgets every fingerprint and its counters.
+     */
+    public void reset() {
+        for (SqlStats stats : byFingerprint.values()) {
+            unregister(stats.objectName);
+        }
+        bySql.clear();
+        byFingerprint.clear();
+        synchronized (this) {
+            lastLoggedCalls = 0;
+        }
+    }
+
+    private long totalCalls() {
+        long calls = 0;
+        for (SqlStats stats : byFingerprint.values()) {
+            calls += stats.calls.sum();
+        }
+        return calls;
+    }
+
+    public void logSummary() {
+        List<Snapshot> snapshots = snapshot();
+        StringBuilder summary = new StringBuilder("SQL statement metrics (")
+                .append(snapshots.size()).append(" fingerprints, slowest total time first):");
+        for (Snapshot snapshot : snapshots.subList(0, Math.min(LOG_SUMMARY_LIMIT, snapshots.size()))) {
+            summary.append("\n  ").append(snapshot);
+        }
+        LOGGER.info(summary.toString());
+    }
+
+    public void shutdown() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        if (registerMBeans) {
+            reset();
+            unregister(SUMMARY_NAME);
+        }
+    }
+
+    private SqlStats statsForFingerprint(String fingerprint) {
+        SqlStats stats = byFingerprint.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        if (byFingerprint.size() >= maxFingerprints) {
+            fingerprint = OVERFLOW_FINGERPRINT;
+        }
+
+        SqlStats created = new SqlStats(fingerprint, nextId.incrementAndGet());
+        stats = byFingerprint.putIfAbsent(fingerprint, created);
+        if (stats != null) {
+            return stats;
+        }
+        if (registerMBeans) {
+            register(created.objectName, created);
+        }
+        return created;
+    }
+
+    private void logSummaryIfChanged() {
+        long calls = totalCalls();
+        synchronized (this) {
+            if (calls == lastLoggedCalls) {
+                return;
+            }
+            lastLoggedCalls = calls;
+        }
+        logSummary();
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid MBean name " + name, e);
+        }
+    }
+
+    private static void register(ObjectName name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register MBean " + name, e);
+        }
+    }
+
+    private static void unregister(ObjectName name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "Could not unregister MBean " + name, e);
+        }
+    }
+
+    /**
+     * Attributes published for one statement fingerprint.
+     */
+    public interface SqlStatementMXBean {
+        String getSql();
+
+        long getCalls();
+
+        long getErrors();
+
+        long getRowsReturned();
+
+        double getTotalMillis();
+
+        double getMeanMicros();
+
+        long getP50Micros();
+
+        long getP99Micros();
+
+        long getMaxMicros();
+    }
+
+    /**
+     * Totals across all fingerprints, plus operations for use from a JMX console.
+     */
+    public interface StatementMetricsMXBean {
+        int getFingerprintCount();
+
+        long getTotalCalls();
+
+        String[] getSlowestStatements();
+
+        void logSummary();
+
+        void reset();
+    }
+
+    /**
+     * Counters for one fingerprint. Updated by every thread that runs the statement.
+     */
+    static final class SqlStats implements SqlStatementMXBean {
+        private final String fingerprint;
+        private final ObjectName objectName;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private SqlStats(String fingerprint, int id) {
+            this.fingerprint = fingerprint;
+            this.objectName = objectName(JMX_DOMAIN + ":type=StatementMetrics,name=Statement,id=" + id);
+        }
+
+        void recordExecution(long elapsedNanos, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            latency.record(elapsedNanos / 1000);
+        }
+
+        void recordRows(long count) {
+            if (count > 0) {
+                rows.add(count);
+            }
+        }
+
+        @Override
+        public String getSql() {
+            return fingerprint;
+        }
+
+        @Override
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getRowsReturned() {
+            return rows.sum();
+        }
+
+        @Override
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1_000_000.0;
+        }
+
+        @Override
+        public double getMeanMicros() {
+            long count = calls.sum();
+            return count > 0 ? totalNanos.sum() / 1000.0 / count : 0;
+        }
+
+        @Override
+        public long getP50Micros() {
+            return latency.getPercentile(0.50);
+        }
+
+        @Override
+        public long getP99Micros() {
+            return latency.getPercentile(0.99);
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return latency.getMax();
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(fingerprint, getCalls(), getErrors(), getRowsReturned(), getTotalMillis(),
+                    getP50Micros(), getP99Micros(), getMaxMicros());
+        }
+    }
+
+    /**
+     * Point-in-time copy of one fingerprint's counters.
+     */
+    public static class Snapshot {
+        private final String sql;
+        private final long calls;
+        private final long errors;
+        private final long rowsReturned;
+        private final double totalMillis;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        private Snapshot(String sql, long calls, long errors, long rowsReturned, double totalMillis,
+                         long p50Micros, long p99Micros, long maxMicros) {
+            this.sql = sql;
+            this.calls = calls;
+            this.errors = errors;
+            this.rowsReturned = rowsReturned;
+            this.totalMillis = totalMillis;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getRowsReturned() {
+            return rowsReturned;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d errors=%d rows=%d total=%.1fms p50=%dus p99=%dus max=%dus %s",
+                    calls, errors, rowsReturned, totalMillis, p50Micros, p99Micros, maxMicros, sql);
+        }
+    }
+
+    private class Summary implements StatementMetricsMXBean {
+        @Override
+        public int getFingerprintCount() {
+            return byFingerprint.size();
+        }
+
+        @Override
+        public long getTotalCalls() {
+            return totalCalls();
+        }
+
+        @Override
+        public String[] getSlowestStatements() {
+            List<Snapshot> snapshots = snapshot();
+            return snapshots.subList(0, Math.min(LOG_SUMMARY_LIMIT, snapshots.size())).stream()
+                    .map(Snapshot::toString)
+                    .toArray(String[]::new);
+        }
+
+        @Override
+        public void logSummary() {
+            StatementMetrics.this.logSummary();
+        }
+
+        @Override
+        public void reset() {
+            StatementMetrics.this.reset();
+        }
+    }
+}
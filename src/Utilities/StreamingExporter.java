@@ -0,0 +1,250 @@
+package Utilities;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Writes report datasets to CSV or JSON straight from the database. Rows are read from a forward-only,
+ * read-only result set with a fetch size, so the driver streams them, and each row is written to a
+ * buffered writer as soon as it is read. Memory use does not depend on the number of rows.
+ */
+public class StreamingExporter {
+    private static final Logger LOGGER = Logger.getLogger(StreamingExporter.class.getName());
+
+    private static final int FETCH_SIZE = Integer.getInteger("export.fetchSize", 1_000);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV("csv"),
+        JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum Dataset {
+        STUDENT_COURSE_MARKS("student-course-marks",
+                "SELECT s.studentId, s.studentName, c.courseId, c.courseName, e.grade, e.startDate, e.endDate " +
+                "FROM enrollment e " +
+                "JOIN student s ON e.studentId = s.studentId " +
+                "JOIN course c ON e.courseId = c.courseId " +
+                "ORDER BY s.studentName, c.courseName"),
+        COURSE_SUMMARIES("course-summaries",
+                "SELECT c.courseId, c.courseName, c.credits, i.instructorName, " +
+                "COALESCE(cs.enrollmentCount, 0) AS enrollmentCount, COALESCE(cs.gradedCount, 0) AS gradedCount, " +
+                "COALESCE(cs.scoreCount, 0) AS scoreCount, " +
+                "CASE WHEN cs.scoreCount > 0 THEN cs.scoreSum / cs.scoreCount END AS averageScore " +
+                "FROM course c " +
+                "LEFT JOIN course_summary cs ON c.courseId = cs.courseId " +
+                "LEFT JOIN instructor i ON c.instructorId = i.instructorId " +
+                "ORDER BY c.courseId");
+
+        private final String fileName;
+        private final String sql;
+
+        Dataset(String fileName, String sql) {
+            this.fileName = fileName;
+            this.sql = sql;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+    }
+
+    private final DatabaseConnectionManager dbManager;
+
+    public StreamingExporter() {
+        this(DatabaseConnectionManager.getInstance());
+    }
+
+    public StreamingExporter(DatabaseConnectionManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public Result export(Dataset dataset, Format format, Path target) throws IOException {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(target), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return export(dataset, format, writer);
+        }
+    }
+
+    /**
+     * Streams the dataset to the writer. The writer is flushed but not closed.
+     */
+    public Result export(Dataset dataset, Format format, Writer writer) throws IOException {
+        long startedAt = System.nanoTime();
+        long rows = 0;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setReadOnly(true);
+            try (PreparedStatement pstmt = conn.prepareStatement(dataset.sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(FETCH_SIZE);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    String[] labels = new String[columnCount];
+                    boolean[] numeric = new boolean[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        labels[i] = metaData.getColumnLabel(i + 1);
+                        numeric[i] = isNumeric(metaData.getColumnType(i + 1));
+                    }
+
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, labels);
+                        String[] values = new String[columnCount];
+                        while (rs.next()) {
+                            for (int i = 0; i < columnCount; i++) {
+                                values[i] = rs.getString(i + 1);
+                            }
+                            writeCsvRow(writer, values);
+                            rows++;
+                        }
+                    } else {
+                        writer.write('[');
+                        while (rs.next()) {
+                            writer.write(rows == 0 ? "\n{" : ",\n{");
+                            for (int i = 0; i < columnCount; i++) {
+                                if (i > 0) {
+                                    writer.write(',');
+                                }
+                                writeJsonString(writer, labels[i]);
+                                writer.write(':');
+                                writeJsonValue(writer, rs.getString(i + 1), numeric[i]);
+                            }
+                            writer.write('}');
+                            rows++;
+                        }
+                        writer.write("\n]\n");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to export " + dataset.fileName, e);
+        }
+        writer.flush();
+
+        Result result = new Result(rows, System.nanoTime() - startedAt);
+        LOGGER.info(String.format("Exported %s as %s: %s", dataset.fileName, format, result));
+        return result;
+    }
+
+    private static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static void writeJsonValue(Writer writer, String value, boolean numeric) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (numeric) {
+            writer.write(value);
+        } else {
+            writeJsonString(writer, value);
+        }
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    public static class Result {
+        private final long rowCount;
+        private final long elapsedNanos;
+
+        private Result(long rowCount, long elapsedNanos) {
+            this.rowCount = rowCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rowCount * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rows=%d elapsed=%dms rate=%.1f rows/s", rowCount, getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package Utilities;
+
+/**
+ * Credit-weighted GPA for one student over their graded enrollments.
+ * gpa is 0 when no course has been graded.
+ */
+public record StudentGpa(int studentId, double gpa, int gradedCredits, double qualityPoints, int gradedCourses) {
+}
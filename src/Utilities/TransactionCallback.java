@@ -0,0 +1,14 @@
+package Utilities;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    /**
+     * Does the transaction's work. Must not commit, roll back or close the connection.
+     * @param conn Connection with auto-commit off
+     * @return Result handed back to the caller after commit
+     */
+    T doInTransaction(Connection conn) throws SQLException;
+}
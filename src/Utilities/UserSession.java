@@ -1,17 +1,16 @@
 package Utilities;
 
-import java.util.*;
-
+/**
+ * The desktop client's current session.
+ * Sessions themselves live in SessionRegistry; this only remembers which one belongs to the
+ * signed-in window so existing screens can keep calling getInstance().
+ */
 public class UserSession {
     private static UserSession instance;
 
-    private Integer userId;
-    private String username;
-    private String userType;
-    private final Map<String, Object> attributes;
+    private volatile Session current;
 
     private UserSession() {
-        attributes = new HashMap<>();
     }
 
     public static synchronized UserSession getInstance() {
@@ -22,31 +21,72 @@ public class UserSession {
     }
 
     public void createSession(Integer userId, String username, String userType) {
-        this.userId = userId;
-        this.username = username;
-        this.userType = userType;
+        attach(SessionRegistry.getInstance().create(userId, username, userType));
     }
 
-    public void clearSession() {
-        userId = null;
-        username = null;
-        userType = null;
-        attributes.clear();
+    /**
+     * Makes this the window's session. It is exempt from idle eviction, since the dashboards expect
+     * the signed-in user to stay signed in until they log out.
+     */
+    public void attach(Session session) {
+        if (session != null) {
+            session.setIdleExempt(true);
+        }
+        Session previous = current;
+        current = session;
+        if (previous != null && previous != session) {
+            SessionRegistry.getInstance().invalidate(previous.getToken());
+        }
+    }
+
+    /**
+     * @return The session that was attached, or null if nobody was signed in
+     */
+    public Session clearSession() {
+        Session previous = current;
+        current = null;
+        if (previous != null) {
+            SessionRegistry.getInstance().invalidate(previous.getToken());
+        }
+        return previous;
     }
 
     public boolean isLoggedIn() {
-        return userId != null;
+        return getSession() != null;
+    }
+
+    /**
+     * @return The attached session, or null if nobody is signed in or it was invalidated
+     */
+    public Session getSession() {
+        Session session = current;
+        return session == null ? null : SessionRegistry.getInstance().get(session.getToken());
     }
 
     public Integer getUserId() {
-        return userId;
+        Session session = getSession();
+        return session == null ? null : session.getUserId();
     }
 
     public String getUsername() {
-        return username;
+        Session session = getSession();
+        return session == null ? null : session.getUsername();
     }
 
     public String getUserType() {
-        return userType;
+        Session session = getSession();
+        return session == null ? null : session.getUserType();
+    }
+
+    public Object getAttribute(String name) {
+        Session session = getSession();
+        return session == null ? null : session.getAttribute(name);
+    }
+
+    public void setAttribute(String name, Object value) {
+        Session session = getSession();
+        if (session != null) {
+            session.setAttribute(name, value);
+        }
     }
-}
\ No newline at end of file
+}
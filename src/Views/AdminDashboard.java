@@ -3,18 +3,35 @@ package Views;
 import Utilities.*;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class AdminDashboard extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(AdminDashboard.class.getName());
+
+    private final Map<String, Long> tabLoadTimes = new LinkedHashMap<>();
     private DatabaseConnectionManager dbManager;
+    private AsyncDataService asyncDataService;
     private UserSession userSession;
     private JTabbedPane tabbedPane;
 
     public AdminDashboard() {
         this.dbManager = DatabaseConnectionManager.getInstance();
+        this.asyncDataService = AsyncDataService.getInstance();
         this.userSession = UserSession.getInstance();
 
         setTitle("Administrator Dashboard - " + userSession.getUsername());
@@ -40,45 +57,99 @@ public class AdminDashboard extends JFrame {
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Shows a loading placeholder in the panel, runs the query in the background and fills the
+     * table model once the rows arrive. Each tab loads independently, so the tabs load in parallel.
+     */
+    private void loadTableAsync(String tabTitle, String entityName, JPanel panel, DefaultTableModel tableModel,
+                                String query, RowMapper<Vector<Object>> rowMapper) {
+        JLabel loadingLabel = new JLabel("Loading " + entityName + "...", JLabel.CENTER);
+        panel.add(loadingLabel, BorderLayout.NORTH);
+        long startedAt = System.nanoTime();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rowMapper),
+                rows -> {
+                    rows.forEach(tableModel::addRow);
+                    panel.remove(loadingLabel);
+                    panel.revalidate();
+                    panel.repaint();
+                    recordTabLoadTime(tabTitle, startedAt, rows.size());
+                },
+                e -> {
+                    loadingLabel.setText("Failed to load " + entityName);
+                    JOptionPane.showMessageDialog(this,
+                            "Error retrieving " + entityName + ": " + e.getMessage(),
+                            "Database Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
+    }
+
+    /**
+     * Pages the table in on demand; the placeholder is shown only until the row count arrives.
+     */
+    private void loadPagedTableAsync(String tabTitle, String entityName, JPanel panel, PagedTableModel tableModel) {
+        JLabel loadingLabel = new JLabel("Loading " + entityName + "...", JLabel.CENTER);
+        panel.add(loadingLabel, BorderLayout.NORTH);
+        long startedAt = System.nanoTime();
+
+        tableModel.refresh().whenComplete((rowCount, error) -> {
+            if (error == null) {
+                panel.remove(loadingLabel);
+                panel.revalidate();
+                panel.repaint();
+                recordTabLoadTime(tabTitle, startedAt, rowCount);
+            } else {
+                loadingLabel.setText("Failed to load " + entityName);
+                JOptionPane.showMessageDialog(this,
+                        "Error retrieving " + entityName + ": " + error.getMessage(),
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    private void recordTabLoadTime(String tabTitle, long startedAt, int rowCount) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        tabLoadTimes.put(tabTitle, elapsedMillis);
+        LOGGER.info(String.format("Tab '%s' loaded %d rows in %d ms", tabTitle, rowCount, elapsedMillis));
+    }
+
+    /**
+     * @return Most recent load time in milliseconds for each table tab, keyed by tab title
+     */
+    public Map<String, Long> getTabLoadTimes() {
+        return Collections.unmodifiableMap(tabLoadTimes);
+    }
+
     private JPanel createStudentsPanel() {
         JPanel studentsPanel = new JPanel(new BorderLayout());
 
         String[] columnNames = {
                 "Student ID", "Name", "Email", "Date of Birth", "Active Status"
         };
-        DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
+        PagedTableModel tableModel = new PagedTableModel(columnNames,
+                "SELECT studentId, studentName, email, dateOfBirth, isActive",
+                "student",
+                "studentId",
+                "SELECT COUNT(*) FROM student",
+                rs -> new Object[]{
+                        rs.getString("studentId"),
+                        rs.getString("studentName"),
+                        rs.getString("email"),
+                        rs.getDate("dateOfBirth"),
+                        rs.getBoolean("isActive")
+                });
         JTable studentsTable = new JTable(tableModel);
-
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT studentId, studentName, email, dateOfBirth, isActive " +
-                    "FROM student";
-
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getString("studentId"));
-                    row.add(rs.getString("studentName"));
-                    row.add(rs.getString("email"));
-                    row.add(rs.getDate("dateOfBirth"));
-                    row.add(rs.getBoolean("isActive"));
-
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving students: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        loadPagedTableAsync("Students Management", "students", studentsPanel, tableModel);
 
         JPanel buttonPanel = new JPanel();
         JButton addStudentButton = new JButton("Add Student");
         addStudentButton.addActionListener(e -> openAddStudentDialog());
         buttonPanel.add(addStudentButton);
+        JButton importStudentsButton = new JButton("Import Students CSV");
+        importStudentsButton.addActionListener(e -> importPeopleFromCsv(PersonCsvImporter.Target.STUDENT));
+        buttonPanel.add(importStudentsButton);
 
         studentsPanel.add(new JScrollPane(studentsTable), BorderLayout.CENTER);
         studentsPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -131,36 +202,43 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            try {
-                Connection conn = dbManager.getConnection();
-                String insertQuery = "INSERT INTO student (studentName, email, dateOfBirth, passwordHash, isActive) " +
-                        "VALUES (?, ?, ?, ?, ?)";
-
-                String hashedPassword = new AuthenticationManager().hashPassword(password);
-
-                try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
-                    pstmt.setString(1, name);
-                    pstmt.setString(2, email);
-                    pstmt.setDate(3, Date.valueOf(dob));
-                    pstmt.setString(4, hashedPassword);
-                    pstmt.setBoolean(5, isActive);
-
-                    pstmt.executeUpdate();
-                }
-
-                JOptionPane.showMessageDialog(addStudentDialog,
-                        "Student added successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                addStudentDialog.dispose();
-                tabbedPane.setComponentAt(0, createStudentsPanel());
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(addStudentDialog,
-                        "Error adding student: " + ex.getMessage(),
-                        "Database Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Hash before borrowing a connection; both run off the event dispatch thread
+            saveButton.setEnabled(false);
+            asyncDataService.submit(
+                    () -> {
+                        String hashedPassword = new AuthenticationManager().hashPassword(password);
+                        String insertQuery = "INSERT INTO student (studentName, email, dateOfBirth, passwordHash, isActive) " +
+                                "VALUES (?, ?, ?, ?, ?)";
+
+                        try (Connection conn = dbManager.getConnection();
+                             PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
+                            pstmt.setString(1, name);
+                            pstmt.setString(2, email);
+                            pstmt.setDate(3, Date.valueOf(dob));
+                            pstmt.setString(4, hashedPassword);
+                            pstmt.setBoolean(5, isActive);
+
+                            return pstmt.executeUpdate();
+                        }
+                    },
+                    inserted -> {
+                        ReferenceDataCache.getInstance().requestRefresh(ReferenceDataCache.Entity.STUDENT);
+
+                        JOptionPane.showMessageDialog(addStudentDialog,
+                                "Student added successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+
+                        addStudentDialog.dispose();
+                        tabbedPane.setComponentAt(0, createStudentsPanel());
+                    },
+                    ex -> {
+                        saveButton.setEnabled(true);
+                        JOptionPane.showMessageDialog(addStudentDialog,
+                                "Error adding student: " + ex.getMessage(),
+                                "Database Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    });
         });
         dialogPanel.add(saveButton);
 
@@ -168,6 +246,53 @@ public class AdminDashboard extends JFrame {
         addStudentDialog.setVisible(true);
     }
 
+    /**
+     * Imports the chosen CSV file in the background, then shows the counts and any rejected rows
+     * and reloads the affected tab.
+     */
+    private void importPeopleFromCsv(PersonCsvImporter.Target target) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path csvFile = fileChooser.getSelectedFile().toPath();
+        boolean students = target == PersonCsvImporter.Target.STUDENT;
+
+        asyncDataService.submit(
+                () -> new PersonCsvImporter().importFile(csvFile, target),
+                report -> {
+                    StringWriter details = new StringWriter();
+                    details.write(String.format("Read %d rows, imported %d, rejected %d in %d ms (%.1f rows/s).%n%n",
+                            report.getRowsRead(), report.getImportedCount(), report.getErrors().size(),
+                            report.getElapsedMillis(), report.getRowsPerSecond()));
+                    if (!report.isComplete()) {
+                        details.write(String.format("Reading stopped early (%s); only the rows above were imported.%n%n",
+                                report.getReadError()));
+                    }
+                    try {
+                        report.writeErrorReport(details);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+
+                    JTextArea reportArea = new JTextArea(details.toString(), 15, 60);
+                    reportArea.setEditable(false);
+                    JOptionPane.showMessageDialog(this, new JScrollPane(reportArea),
+                            "Import Results", JOptionPane.INFORMATION_MESSAGE);
+
+                    if (students) {
+                        tabbedPane.setComponentAt(0, createStudentsPanel());
+                    } else {
+                        tabbedPane.setComponentAt(1, createInstructorsPanel());
+                    }
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error importing " + (students ? "students" : "instructors") + ": " + e.getMessage(),
+                        "Import Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+
     private JPanel createInstructorsPanel() {
         JPanel instructorsPanel = new JPanel(new BorderLayout());
 
@@ -177,36 +302,25 @@ public class AdminDashboard extends JFrame {
         DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
         JTable instructorsTable = new JTable(tableModel);
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT instructorId, instructorName, email, department, isActive " +
-                    "FROM instructor";
-
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getString("instructorId"));
-                    row.add(rs.getString("instructorName"));
-                    row.add(rs.getString("email"));
-                    row.add(rs.getString("department"));
-                    row.add(rs.getBoolean("isActive"));
-
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving instructors: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT instructorId, instructorName, email, department, isActive " +
+                "FROM instructor";
+        loadTableAsync("Instructors Management", "instructors", instructorsPanel, tableModel, query, rs -> {
+            Vector<Object> row = new Vector<>();
+            row.add(rs.getString("instructorId"));
+            row.add(rs.getString("instructorName"));
+            row.add(rs.getString("email"));
+            row.add(rs.getString("department"));
+            row.add(rs.getBoolean("isActive"));
+            return row;
+        });
 
         JPanel buttonPanel = new JPanel();
         JButton addInstructorButton = new JButton("Add Instructor");
         addInstructorButton.addActionListener(e -> openAddInstructorDialog());
         buttonPanel.add(addInstructorButton);
+        JButton importInstructorsButton = new JButton("Import Instructors CSV");
+        importInstructorsButton.addActionListener(e -> importPeopleFromCsv(PersonCsvImporter.Target.INSTRUCTOR));
+        buttonPanel.add(importInstructorsButton);
 
         instructorsPanel.add(new JScrollPane(instructorsTable), BorderLayout.CENTER);
         instructorsPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -259,36 +373,43 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            try {
-                Connection conn = dbManager.getConnection();
-                String insertQuery = "INSERT INTO instructor (instructorName, email, department, passwordHash, isActive) " +
-                        "VALUES (?, ?, ?, ?, ?)";
-
-                String hashedPassword = new AuthenticationManager().hashPassword(password);
-
-                try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
-                    pstmt.setString(1, name);
-                    pstmt.setString(2, email);
-                    pstmt.setString(3, department);
-                    pstmt.setString(4, hashedPassword);
-                    pstmt.setBoolean(5, isActive);
-
-                    pstmt.executeUpdate();
-                }
-
-                JOptionPane.showMessageDialog(addInstructorDialog,
-                        "Instructor added successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                addInstructorDialog.dispose();
-                tabbedPane.setComponentAt(1, createInstructorsPanel());
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(addInstructorDialog,
-                        "Error adding instructor: " + ex.getMessage(),
-                        "Database Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Hash before borrowing a connection; both run off the event dispatch thread
+            saveButton.setEnabled(false);
+            asyncDataService.submit(
+                    () -> {
+                        String hashedPassword = new AuthenticationManager().hashPassword(password);
+                        String insertQuery = "INSERT INTO instructor (instructorName, email, department, passwordHash, isActive) " +
+                                "VALUES (?, ?, ?, ?, ?)";
+
+                        try (Connection conn = dbManager.getConnection();
+                             PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
+                            pstmt.setString(1, name);
+                            pstmt.setString(2, email);
+                            pstmt.setString(3, department);
+                            pstmt.setString(4, hashedPassword);
+                            pstmt.setBoolean(5, isActive);
+
+                            return pstmt.executeUpdate();
+                        }
+                    },
+                    inserted -> {
+                        ReferenceDataCache.getInstance().requestRefresh(ReferenceDataCache.Entity.INSTRUCTOR);
+
+                        JOptionPane.showMessageDialog(addInstructorDialog,
+                                "Instructor added successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+
+                        addInstructorDialog.dispose();
+                        tabbedPane.setComponentAt(1, createInstructorsPanel());
+                    },
+                    ex -> {
+                        saveButton.setEnabled(true);
+                        JOptionPane.showMessageDialog(addInstructorDialog,
+                                "Error adding instructor: " + ex.getMessage(),
+                                "Database Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    });
         });
         dialogPanel.add(saveButton);
 
@@ -305,33 +426,19 @@ public class AdminDashboard extends JFrame {
         DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
         JTable coursesTable = new JTable(tableModel);
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT c.courseId, c.courseName, c.credits, " +
-                    "i.instructorName, i.department " +
-                    "FROM course c " +
-                    "LEFT JOIN instructor i ON c.instructorId = i.instructorId";
-
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getString("courseId"));
-                    row.add(rs.getString("courseName"));
-                    row.add(rs.getInt("credits"));
-                    row.add(rs.getString("instructorName"));
-                    row.add(rs.getString("department"));
-
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving courses: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT c.courseId, c.courseName, c.credits, " +
+                "i.instructorName, i.department " +
+                "FROM course c " +
+                "LEFT JOIN instructor i ON c.instructorId = i.instructorId";
+        loadTableAsync("Courses Management", "courses", coursesPanel, tableModel, query, rs -> {
+            Vector<Object> row = new Vector<>();
+            row.add(rs.getString("courseId"));
+            row.add(rs.getString("courseName"));
+            row.add(rs.getInt("credits"));
+            row.add(rs.getString("instructorName"));
+            row.add(rs.getString("department"));
+            return row;
+        });
 
         JPanel buttonPanel = new JPanel();
         JButton addCourseButton = new JButton("Add Course");
@@ -361,36 +468,20 @@ public class AdminDashboard extends JFrame {
         dialogPanel.add(creditsField);
 
         dialogPanel.add(new JLabel("Instructor:"));
-        JComboBox<String> instructorComboBox = new JComboBox<>();
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT instructorId, instructorName FROM instructor";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    instructorComboBox.addItem(
-                            rs.getString("instructorId") + " - " +
-                                    rs.getString("instructorName")
-                    );
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving instructors: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        ReferenceComboBoxModel instructorModel =
+                new ReferenceComboBoxModel(ReferenceDataCache.Entity.INSTRUCTOR, null, true);
+        instructorModel.detachOnClose(addCourseDialog);
+        JComboBox<String> instructorComboBox = new JComboBox<>(instructorModel);
         dialogPanel.add(instructorComboBox);
 
         JButton saveButton = new JButton("Save Course");
         saveButton.addActionListener(e -> {
             String courseName = courseNameField.getText().trim();
             String creditsStr = creditsField.getText().trim();
-            String selectedInstructor = (String) instructorComboBox.getSelectedItem();
+            Integer instructorId = instructorModel.getSelectedId();
 
             if (courseName.isEmpty() || creditsStr.isEmpty() ||
-                    selectedInstructor == null) {
+                    instructorId == null) {
                 JOptionPane.showMessageDialog(addCourseDialog,
                         "Please fill in all fields.",
                         "Validation Error",
@@ -400,19 +491,18 @@ public class AdminDashboard extends JFrame {
 
             try {
                 int credits = Integer.parseInt(creditsStr);
-                String instructorId = selectedInstructor.split(" - ")[0];
-
-                Connection conn = dbManager.getConnection();
                 String insertQuery = "INSERT INTO course (courseName, credits, instructorId) " +
                         "VALUES (?, ?, ?)";
 
-                try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
+                try (Connection conn = dbManager.getConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
                     pstmt.setString(1, courseName);
                     pstmt.setInt(2, credits);
-                    pstmt.setString(3, instructorId);
+                    pstmt.setInt(3, instructorId);
 
                     pstmt.executeUpdate();
                 }
+                DataChangeNotifier.getInstance().fire(DataChange.COURSE);
 
                 JOptionPane.showMessageDialog(addCourseDialog,
                         "Course added successfully!",
@@ -445,41 +535,31 @@ public class AdminDashboard extends JFrame {
         String[] columnNames = {
                 "Enrollment ID", "Student Name", "Course Name", "Start Date", "End Date"
         };
-        DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
+        // studentId and courseId are NOT NULL foreign keys, so the join never drops enrollment rows
+        PagedTableModel tableModel = new PagedTableModel(columnNames,
+                "SELECT e.enrollmentId, s.studentName, c.courseName, e.startDate, e.endDate",
+                "enrollment e " +
+                        "JOIN student s ON e.studentId = s.studentId " +
+                        "JOIN course c ON e.courseId = c.courseId",
+                "e.enrollmentId",
+                "SELECT COUNT(*) FROM enrollment",
+                rs -> new Object[]{
+                        rs.getString("enrollmentId"),
+                        rs.getString("studentName"),
+                        rs.getString("courseName"),
+                        rs.getDate("startDate"),
+                        rs.getDate("endDate")
+                });
         JTable enrollmentsTable = new JTable(tableModel);
-
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT e.enrollmentId, s.studentName, c.courseName, e.startDate, e.endDate " +
-                    "FROM enrollment e " +
-                    "JOIN student s ON e.studentId = s.studentId " +
-                    "JOIN course c ON e.courseId = c.courseId";
-
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getString("enrollmentId"));
-                    row.add(rs.getString("studentName"));
-                    row.add(rs.getString("courseName"));
-                    row.add(rs.getDate("startDate"));
-                    row.add(rs.getDate("endDate"));
-
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving enrollments: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        loadPagedTableAsync("Enrollments", "enrollments", enrollmentsPanel, tableModel);
 
         JPanel buttonPanel = new JPanel();
         JButton addEnrollmentButton = new JButton("Enroll Student");
         addEnrollmentButton.addActionListener(e -> openEnrollStudentDialog());
         buttonPanel.add(addEnrollmentButton);
+        JButton bulkEnrollButton = new JButton("Bulk Enroll");
+        bulkEnrollButton.addActionListener(e -> openBulkEnrollDialog());
+        buttonPanel.add(bulkEnrollButton);
 
         enrollmentsPanel.add(new JScrollPane(enrollmentsTable), BorderLayout.CENTER);
         enrollmentsPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -496,50 +576,16 @@ public class AdminDashboard extends JFrame {
         dialogPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         dialogPanel.add(new JLabel("Student:"));
-        JComboBox<String> studentComboBox = new JComboBox<>();
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT studentId, studentName FROM student";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    studentComboBox.addItem(
-                            rs.getString("studentId") + " - " +
-                                    rs.getString("studentName")
-                    );
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving students: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-        dialogPanel.add(studentComboBox);
+        ReferenceComboBoxModel studentModel =
+                new ReferenceComboBoxModel(ReferenceDataCache.Entity.STUDENT, null, true);
+        studentModel.detachOnClose(enrollStudentDialog);
+        dialogPanel.add(new JComboBox<>(studentModel));
 
         dialogPanel.add(new JLabel("Course:"));
-        JComboBox<String> courseComboBox = new JComboBox<>();
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT courseId, courseName FROM course";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                while (rs.next()) {
-                    courseComboBox.addItem(
-                            rs.getString("courseId") + " - " +
-                                    rs.getString("courseName")
-                    );
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving courses: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-        dialogPanel.add(courseComboBox);
+        ReferenceComboBoxModel courseModel =
+                new ReferenceComboBoxModel(ReferenceDataCache.Entity.COURSE, null, true);
+        courseModel.detachOnClose(enrollStudentDialog);
+        dialogPanel.add(new JComboBox<>(courseModel));
 
         dialogPanel.add(new JLabel("Start Date (YYYY-MM-DD):"));
         JTextField startDateField = new JTextField();
@@ -551,12 +597,12 @@ public class AdminDashboard extends JFrame {
 
         JButton enrollButton = new JButton("Enroll");
         enrollButton.addActionListener(e -> {
-            String selectedStudent = (String) studentComboBox.getSelectedItem();
-            String selectedCourse = (String) courseComboBox.getSelectedItem();
+            Integer studentId = studentModel.getSelectedId();
+            Integer courseId = courseModel.getSelectedId();
             String startDate = startDateField.getText().trim();
             String endDate = endDateField.getText().trim();
 
-            if (selectedStudent == null || selectedCourse == null ||
+            if (studentId == null || courseId == null ||
                     startDate.isEmpty() || endDate.isEmpty()) {
                 JOptionPane.showMessageDialog(enrollStudentDialog,
                         "Please fill in all fields.",
@@ -566,21 +612,26 @@ public class AdminDashboard extends JFrame {
             }
 
             try {
-                String studentId = selectedStudent.split(" - ")[0];
-                String courseId = selectedCourse.split(" - ")[0];
-
-                Connection conn = dbManager.getConnection();
                 String insertQuery = "INSERT INTO enrollment (studentId, courseId, startDate, endDate) " +
                         "VALUES (?, ?, ?, ?)";
 
-                try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
-                    pstmt.setString(1, studentId);
-                    pstmt.setString(2, courseId);
-                    pstmt.setDate(3, Date.valueOf(startDate));
-                    pstmt.setDate(4, Date.valueOf(endDate));
-
-                    pstmt.executeUpdate();
+                try (Connection conn = dbManager.getConnection()) {
+                    conn.setAutoCommit(false);
+                    try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
+                        pstmt.setInt(1, studentId);
+                        pstmt.setInt(2, courseId);
+                        pstmt.setDate(3, Date.valueOf(startDate));
+                        pstmt.setDate(4, Date.valueOf(endDate));
+
+                        pstmt.executeUpdate();
+                        CourseSummaryService.getInstance().recordEnrollment(conn, courseId);
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    }
                 }
+                DataChangeNotifier.getInstance().fire(DataChange.ENROLLMENT);
 
                 JOptionPane.showMessageDialog(enrollStudentDialog,
                         "Student enrolled successfully!",
@@ -602,6 +653,134 @@ public class AdminDashboard extends JFrame {
         enrollStudentDialog.setVisible(true);
     }
 
+    /**
+     * Enrolls a list of student ids, or every student matching a name or email filter, into the
+     * selected courses in one background run.
+     */
+    private void openBulkEnrollDialog() {
+        JDialog bulkEnrollDialog = new JDialog(this, "Bulk Enroll Students", true);
+        bulkEnrollDialog.setSize(650, 450);
+        bulkEnrollDialog.setLocationRelativeTo(this);
+
+        JPanel studentsPanel = new JPanel(new BorderLayout(5, 5));
+        studentsPanel.setBorder(BorderFactory.createTitledBorder("Students"));
+        JRadioButton byIdButton = new JRadioButton("Student IDs (comma, space or line separated)", true);
+        JRadioButton byFilterButton = new JRadioButton("Name or email contains");
+        ButtonGroup studentModeGroup = new ButtonGroup();
+        studentModeGroup.add(byIdButton);
+        studentModeGroup.add(byFilterButton);
+        JTextArea studentIdsArea = new JTextArea(8, 20);
+        JTextField filterField = new JTextField();
+        JCheckBox activeOnlyCheckBox = new JCheckBox("Active students only", true);
+
+        JPanel filterPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        filterPanel.add(byFilterButton);
+        filterPanel.add(filterField);
+        filterPanel.add(activeOnlyCheckBox);
+        studentsPanel.add(byIdButton, BorderLayout.NORTH);
+        studentsPanel.add(new JScrollPane(studentIdsArea), BorderLayout.CENTER);
+        studentsPanel.add(filterPanel, BorderLayout.SOUTH);
+
+        ReferenceComboBoxModel courseListModel =
+                new ReferenceComboBoxModel(ReferenceDataCache.Entity.COURSE, null, true);
+        courseListModel.detachOnClose(bulkEnrollDialog);
+        JList<String> courseList = new JList<>(courseListModel);
+        courseList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        JScrollPane coursesScrollPane = new JScrollPane(courseList);
+        coursesScrollPane.setBorder(BorderFactory.createTitledBorder("Courses"));
+
+        JPanel optionsPanel = new JPanel(new GridLayout(3, 2, 10, 5));
+        optionsPanel.add(new JLabel("Start Date (YYYY-MM-DD):"));
+        JTextField startDateField = new JTextField();
+        optionsPanel.add(startDateField);
+        optionsPanel.add(new JLabel("End Date (YYYY-MM-DD):"));
+        JTextField endDateField = new JTextField();
+        optionsPanel.add(endDateField);
+        JCheckBox distributeCheckBox = new JCheckBox("Distribute published assignments", true);
+        optionsPanel.add(distributeCheckBox);
+
+        JButton enrollButton = new JButton("Enroll");
+        optionsPanel.add(enrollButton);
+        enrollButton.addActionListener(e -> {
+            List<Integer> courseIds = new ArrayList<>();
+            for (int index : courseList.getSelectedIndices()) {
+                courseIds.add(courseListModel.getIdAt(index));
+            }
+
+            Date startDate;
+            Date endDate;
+            List<Integer> studentIds = new ArrayList<>();
+            try {
+                startDate = Date.valueOf(startDateField.getText().trim());
+                endDate = Date.valueOf(endDateField.getText().trim());
+                if (byIdButton.isSelected()) {
+                    for (String id : studentIdsArea.getText().trim().split("[\\s,]+")) {
+                        if (!id.isEmpty()) {
+                            studentIds.add(Integer.parseInt(id));
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(bulkEnrollDialog,
+                        "Dates must be YYYY-MM-DD and student IDs must be numbers.",
+                        "Validation Error",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            if (courseIds.isEmpty() || (byIdButton.isSelected() && studentIds.isEmpty())) {
+                JOptionPane.showMessageDialog(bulkEnrollDialog,
+                        "Please choose at least one student and one course.",
+                        "Validation Error",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            boolean byFilter = byFilterButton.isSelected();
+            String filter = filterField.getText();
+            boolean activeOnly = activeOnlyCheckBox.isSelected();
+            boolean distribute = distributeCheckBox.isSelected();
+            BulkEnrollmentService bulkEnrollmentService = BulkEnrollmentService.getInstance();
+            enrollButton.setEnabled(false);
+
+            asyncDataService.submit(
+                    () -> bulkEnrollmentService.enroll(
+                            byFilter ? bulkEnrollmentService.findStudentIds(filter, activeOnly) : studentIds,
+                            courseIds, startDate, endDate, distribute),
+                    result -> {
+                        StringBuilder message = new StringBuilder(String.format(
+                                "Enrolled %d, skipped %d existing enrollments, distributed %d assignments in %d ms.",
+                                result.getEnrolledCount(), result.getDuplicateCount(),
+                                result.getDistributedCount(), result.getElapsedMillis()));
+                        if (!result.getUnknownStudentIds().isEmpty()) {
+                            message.append("\nUnknown student IDs: ").append(result.getUnknownStudentIds());
+                        }
+                        JOptionPane.showMessageDialog(bulkEnrollDialog, message.toString(),
+                                "Bulk Enrollment", JOptionPane.INFORMATION_MESSAGE);
+                        bulkEnrollDialog.dispose();
+                        tabbedPane.setComponentAt(3, createEnrollmentsPanel());
+                    },
+                    ex -> {
+                        enrollButton.setEnabled(true);
+                        JOptionPane.showMessageDialog(bulkEnrollDialog,
+                                "Error enrolling students: " + ex.getMessage(),
+                                "Database Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    });
+        });
+
+        JPanel dialogPanel = new JPanel(new BorderLayout(10, 10));
+        dialogPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        JPanel selectionPanel = new JPanel(new GridLayout(1, 2, 10, 10));
+        selectionPanel.add(studentsPanel);
+        selectionPanel.add(coursesScrollPane);
+        dialogPanel.add(selectionPanel, BorderLayout.CENTER);
+        dialogPanel.add(optionsPanel, BorderLayout.SOUTH);
+
+        bulkEnrollDialog.add(dialogPanel);
+        bulkEnrollDialog.setVisible(true);
+    }
+
     private JPanel createAnalyticsPanel() {
         JPanel analyticsPanel = new JPanel(new BorderLayout());
         JPanel buttonPanel = new JPanel(new FlowLayout());
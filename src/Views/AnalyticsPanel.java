@@ -3,27 +3,50 @@ package Views;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import Utilities.AnalyticsCharts;
+import Utilities.AsyncDataService;
+import Utilities.ChartDatasets;
+import Utilities.CourseSummary;
+import Utilities.CourseSummaryService;
 import Utilities.DatabaseConnectionManager;
+import Utilities.Grade;
 import Utilities.ReportGenerator;
-import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PiePlot;
-import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 
 public class AnalyticsPanel extends JPanel implements ReportGenerator {
+    private static final String ENROLLMENT_TAB = "Enrollment Bar Chart";
+    private static final String ENROLLMENT_TITLE = "Course Enrollment Statistics";
+    private static final String GRADE_TAB = "Grade Distribution Pie Chart";
+    // Categories beyond this are summed into one "Other" bar or slice
+    private static final int MAX_CATEGORIES = Math.max(2, Integer.getInteger("analytics.chart.maxCategories", 25));
+
     private DatabaseConnectionManager dbManager;
+    private AsyncDataService asyncDataService;
+    private CourseSummaryService courseSummaryService;
     private JTable gradeTable;
     private DefaultTableModel tableModel;
     private JTabbedPane analyticsPane;
 
+    private final DefaultCategoryDataset enrollmentDataset = new DefaultCategoryDataset();
+    private final DefaultPieDataset<String> gradeDataset = new DefaultPieDataset<>();
+    private JFreeChart enrollmentChart;
+    private ChartPanel enrollmentChartPanel;
+    private JFreeChart gradeChart;
+    private ChartPanel gradeChartPanel;
+
     public AnalyticsPanel(DatabaseConnectionManager dbManager) {
         this.dbManager = dbManager;
+        this.asyncDataService = AsyncDataService.getInstance();
+        this.courseSummaryService = CourseSummaryService.getInstance();
 
         setLayout(new BorderLayout());
 
@@ -68,158 +91,119 @@ public class AnalyticsPanel extends JPanel implements ReportGenerator {
     }
 
     public void displayGradeTable() {
-        tableModel.setRowCount(0);
-
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT " +
-                    "c.course_name, " +
-                    "AVG(e.grade) as average_score, " +
-                    "CASE " +
-                    "    WHEN AVG(e.grade) >= 90 THEN 'A' " +
-                    "    WHEN AVG(e.grade) >= 80 THEN 'B' " +
-                    "    WHEN AVG(e.grade) >= 70 THEN 'C' " +
-                    "    WHEN AVG(e.grade) >= 60 THEN 'D' " +
-                    "    ELSE 'F' " +
-                    "END as grade_letter, " +
-                    "COUNT(DISTINCT e.student_id) as student_count, " +
-                    "i.instructor_name " +
-                    "FROM courses c " +
-                    "JOIN enrollments e ON c.course_id = e.course_id " +
-                    "JOIN instructors i ON c.instructor_id = i.instructor_id " +
-                    "GROUP BY c.course_id, c.course_name, i.instructor_name";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query);
-                 ResultSet rs = pstmt.executeQuery()) {
-
-                while (rs.next()) {
-                    Object[] row = {
-                            rs.getString("course_name"),
-                            String.format("%.2f", rs.getDouble("average_score")),
-                            rs.getString("grade_letter"),
-                            rs.getInt("student_count"),
-                            rs.getString("instructor_name")
-                    };
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving grade data: " + e.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        asyncDataService.submit(
+                () -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (CourseSummary summary : courseSummaryService.getCourseSummaries()) {
+                        if (summary.getEnrollmentCount() > 0) {
+                            rows.add(new Object[]{
+                                    summary.getCourseName(),
+                                    String.format("%.2f", summary.getAverageScore()),
+                                    gradeLetter(summary.getAverageScore()),
+                                    summary.getEnrollmentCount(),
+                                    summary.getInstructorName()
+                            });
+                        }
+                    }
+                    return rows;
+                },
+                rows -> {
+                    tableModel.setRowCount(0);
+                    rows.forEach(tableModel::addRow);
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving grade data: " + e.getMessage(),
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+
+    private static String gradeLetter(double averageScore) {
+        if (averageScore >= 90) return "A";
+        if (averageScore >= 80) return "B";
+        if (averageScore >= 70) return "C";
+        if (averageScore >= 60) return "D";
+        return "F";
     }
 
     @Override
     public void generateBarChart(Map<String, Object> data) {
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT c.course_name, COUNT(DISTINCT e.student_id) as enrollment_count " +
-                    "FROM courses c " +
-                    "LEFT JOIN enrollments e ON c.course_id = e.course_id " +
-                    "GROUP BY c.course_id, c.course_name";
-
-            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query);
-                 ResultSet rs = pstmt.executeQuery()) {
-
-                while (rs.next()) {
-                    dataset.addValue(
-                            rs.getInt("enrollment_count"),
-                            "Enrollments",
-                            rs.getString("course_name")
-                    );
-                }
-            }
-
-            JFreeChart chart = ChartFactory.createBarChart(
-                    "Course Enrollment Statistics",  // Chart title
-                    "Courses",                       // X-Axis Label
-                    "Number of Students",            // Y-Axis Label
-                    dataset,                         // Dataset
-                    PlotOrientation.VERTICAL,        // Plot Orientation
-                    false, true, false              // Show Legend, Tooltips, URLs
-            );
-
-            ChartPanel chartPanel = new ChartPanel(chart);
-            chartPanel.setPreferredSize(new Dimension(560, 370));
-
-            int barChartTabIndex = analyticsPane.indexOfTab("Enrollment Bar Chart");
-            if (barChartTabIndex != -1) {
-                analyticsPane.removeTabAt(barChartTabIndex);
-            }
-
-            analyticsPane.addTab("Enrollment Bar Chart", chartPanel);
-            analyticsPane.setSelectedComponent(chartPanel);
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error generating bar chart: " + e.getMessage(),
-                    "Chart Generation Error",
-                    JOptionPane.ERROR_MESSAGE);
+        asyncDataService.submit(
+                () -> {
+                    Map<String, Integer> enrollmentCounts = new LinkedHashMap<>();
+                    for (CourseSummary summary : courseSummaryService.getCourseSummaries()) {
+                        enrollmentCounts.merge(summary.getCourseName(), summary.getEnrollmentCount(), Integer::sum);
+                    }
+                    return enrollmentCounts;
+                },
+                this::showBarChart,
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error generating bar chart: " + e.getMessage(),
+                        "Chart Generation Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * The chart and its dataset live as long as the panel; each refresh only changes the values that moved.
+     */
+    private void showBarChart(Map<String, Integer> enrollmentCounts) {
+        if (enrollmentChart == null) {
+            enrollmentChart = AnalyticsCharts.createEnrollmentBarChart(ENROLLMENT_TITLE, enrollmentDataset);
+            enrollmentChartPanel = createChartPanel(enrollmentChart);
+            analyticsPane.addTab(ENROLLMENT_TAB, enrollmentChartPanel);
         }
+
+        Map<String, Integer> shown = ChartDatasets.topN(enrollmentCounts, MAX_CATEGORIES);
+        enrollmentChart.setTitle(enrollmentCounts.size() > MAX_CATEGORIES
+                ? String.format("%s (top %d of %d courses)", ENROLLMENT_TITLE, MAX_CATEGORIES - 1, enrollmentCounts.size())
+                : ENROLLMENT_TITLE);
+        ChartDatasets.update(enrollmentDataset, "Enrollments", shown);
+
+        analyticsPane.setSelectedComponent(enrollmentChartPanel);
     }
 
     @Override
     public void generatePieChart(Map<String, Object> data) {
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT " +
-                    "CASE " +
-                    "    WHEN grade >= 90 THEN 'A' " +
-                    "    WHEN grade >= 80 THEN 'B' " +
-                    "    WHEN grade >= 70 THEN 'C' " +
-                    "    WHEN grade >= 60 THEN 'D' " +
-                    "    ELSE 'F' " +
-                    "END as grade_letter, " +
-                    "COUNT(*) as grade_count " +
-                    "FROM enrollments " +
-                    "GROUP BY grade_letter";
-
-            DefaultPieDataset dataset = new DefaultPieDataset();
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query);
-                 ResultSet rs = pstmt.executeQuery()) {
-
-                while (rs.next()) {
-                    dataset.setValue(
-                            rs.getString("grade_letter"),
-                            rs.getInt("grade_count")
-                    );
-                }
-            }
-
-            JFreeChart chart = ChartFactory.createPieChart(
-                    "Grade Distribution",    // Chart title
-                    dataset,                 // Dataset
-                    true,                    // Include legend
-                    true,                    // Tooltips
-                    false                    // URLs
-            );
-
-            PiePlot plot = (PiePlot) chart.getPlot();
+        asyncDataService.submit(
+                () -> {
+                    // Letter grades collapse to their letter, so A+, A and A- share one slice
+                    Map<String, Integer> letterCounts = new LinkedHashMap<>();
+                    for (CourseSummary summary : courseSummaryService.getCourseSummaries()) {
+                        for (Grade grade : Grade.values()) {
+                            int count = summary.getGradeCount(grade);
+                            if (count > 0) {
+                                letterCounts.merge(grade.getLabel().substring(0, 1), count, Integer::sum);
+                            }
+                        }
+                    }
+                    return letterCounts;
+                },
+                this::showPieChart,
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error generating pie chart: " + e.getMessage(),
+                        "Chart Generation Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showPieChart(Map<String, Integer> gradeCounts) {
+        if (gradeChart == null) {
+            gradeChart = AnalyticsCharts.createGradePieChart("Grade Distribution", gradeDataset);
+            PiePlot<?> plot = (PiePlot<?>) gradeChart.getPlot();
             plot.setCircular(true);
             plot.setLabelGenerator(null);
 
-            ChartPanel chartPanel = new ChartPanel(chart);
-            chartPanel.setPreferredSize(new Dimension(560, 370));
+            gradeChartPanel = createChartPanel(gradeChart);
+            analyticsPane.addTab(GRADE_TAB, gradeChartPanel);
+        }
 
-            int pieChartTabIndex = analyticsPane.indexOfTab("Grade Distribution Pie Chart");
-            if (pieChartTabIndex != -1) {
-                analyticsPane.removeTabAt(pieChartTabIndex);
-            }
+        ChartDatasets.update(gradeDataset, ChartDatasets.topN(gradeCounts, MAX_CATEGORIES));
 
-            analyticsPane.addTab("Grade Distribution Pie Chart", chartPanel);
-            analyticsPane.setSelectedComponent(chartPanel);
+        analyticsPane.setSelectedComponent(gradeChartPanel);
+    }
 
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error generating pie chart: " + e.getMessage(),
-                    "Chart Generation Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+    private static ChartPanel createChartPanel(JFreeChart chart) {
+        ChartPanel chartPanel = new ChartPanel(chart);
+        chartPanel.setPreferredSize(new Dimension(560, 370));
+        return chartPanel;
     }
 
     @Override
@@ -235,32 +219,32 @@ public class AnalyticsPanel extends JPanel implements ReportGenerator {
         JTextArea summaryTextArea = new JTextArea();
         summaryTextArea.setEditable(false);
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String summaryQuery = "SELECT " +
-                    "COUNT(DISTINCT course_id) as total_courses, " +
-                    "COUNT(DISTINCT student_id) as total_students, " +
-                    "AVG(grade) as overall_average_grade " +
-                    "FROM courses c " +
-                    "JOIN enrollments e ON c.course_id = e.course_id";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(summaryQuery);
-                 ResultSet rs = pstmt.executeQuery()) {
-
-                if (rs.next()) {
-                    summaryTextArea.append("Comprehensive Course Analytics Report\n\n");
-                    summaryTextArea.append(String.format("Total Courses: %d\n", rs.getInt("total_courses")));
-                    summaryTextArea.append(String.format("Total Students: %d\n", rs.getInt("total_students")));
-                    summaryTextArea.append(String.format("Overall Average Grade: %.2f\n", rs.getDouble("overall_average_grade")));
-                }
-            }
-        } catch (SQLException e) {
-            summaryTextArea.append("Error generating summary: " + e.getMessage());
-        }
+        String summaryQuery = "SELECT " +
+                "COUNT(DISTINCT course_id) as total_courses, " +
+                "COUNT(DISTINCT student_id) as total_students, " +
+                "AVG(grade) as overall_average_grade " +
+                "FROM courses c " +
+                "JOIN enrollments e ON c.course_id = e.course_id";
+
+        asyncDataService.submit(
+                () -> dbManager.queryForObject(summaryQuery, rs -> new Object[]{
+                        rs.getInt("total_courses"),
+                        rs.getInt("total_students"),
+                        rs.getDouble("overall_average_grade")
+                }),
+                summary -> {
+                    if (summary != null) {
+                        summaryTextArea.append("Comprehensive Course Analytics Report\n\n");
+                        summaryTextArea.append(String.format("Total Courses: %d\n", (Integer) summary[0]));
+                        summaryTextArea.append(String.format("Total Students: %d\n", (Integer) summary[1]));
+                        summaryTextArea.append(String.format("Overall Average Grade: %.2f\n", (Double) summary[2]));
+                    }
+                },
+                e -> summaryTextArea.append("Error generating summary: " + e.getMessage()));
 
         reportPanel.add(new JScrollPane(summaryTextArea), BorderLayout.NORTH);
 
         analyticsPane.addTab("Detailed Report", reportPanel);
         analyticsPane.setSelectedComponent(reportPanel);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package Views;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Grade editing model for one course. Remembers the grade each row was loaded or last saved with,
+ * so only rows the instructor actually changed are written back. Only the grade column is editable.
+ */
+public class GradeTableModel extends DefaultTableModel {
+    public static final int STUDENT_ID_COLUMN = 0;
+    public static final int GRADE_COLUMN = 2;
+
+    private final List<String> savedGrades = new ArrayList<>();
+
+    public GradeTableModel() {
+        super(new Object[]{"Student ID", "Student Name", "Current Grade"}, 0);
+    }
+
+    /**
+     * @param grade Current grade label, or an empty string when not graded
+     */
+    public void addStudent(int studentId, String studentName, String grade) {
+        savedGrades.add(grade);
+        addRow(new Object[]{studentId, studentName, grade});
+    }
+
+    @Override
+    public void removeRow(int row) {
+        savedGrades.remove(row);
+        super.removeRow(row);
+    }
+
+    @Override
+    public void setRowCount(int rowCount) {
+        while (savedGrades.size() > rowCount) {
+            savedGrades.remove(savedGrades.size() - 1);
+        }
+        super.setRowCount(rowCount);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex == STUDENT_ID_COLUMN ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == GRADE_COLUMN;
+    }
+
+    public int getStudentId(int row) {
+        return (Integer) getValueAt(row, STUDENT_ID_COLUMN);
+    }
+
+    public String getGrade(int row) {
+        return (String) getValueAt(row, GRADE_COLUMN);
+    }
+
+    /**
+     * @return Rows whose grade differs from the saved one and is not blank, in table order
+     */
+    public List<Integer> getDirtyRows() {
+        List<Integer> dirtyRows = new ArrayList<>();
+        for (int row = 0; row < getRowCount(); row++) {
+            String grade = getGrade(row);
+            if (grade != null && !grade.isEmpty() && !Objects.equals(grade, savedGrades.get(row))) {
+                dirtyRows.add(row);
+            }
+        }
+        return dirtyRows;
+    }
+
+    /**
+     * Records the given rows' current grades as saved. Call after the transaction writing them commits.
+     */
+    public void markSaved(List<Integer> rows) {
+        for (int row : rows) {
+            savedGrades.set(row, getGrade(row));
+        }
+    }
+}
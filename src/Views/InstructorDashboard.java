@@ -1,17 +1,34 @@
 package Views;
 
+import Utilities.AsyncDataService;
 import Utilities.AuthenticationManager;
+import Utilities.CourseSummaryService;
+import Utilities.DataChange;
+import Utilities.DataChangeNotifier;
 import Utilities.DatabaseConnectionManager;
+import Utilities.GpaService;
+import Utilities.Grade;
+import Utilities.ReferenceDataCache;
 import Utilities.UserSession;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import java.awt.*;
 import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class InstructorDashboard extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(InstructorDashboard.class.getName());
+
     private DatabaseConnectionManager dbManager;
+    private AsyncDataService asyncDataService;
+    private CourseSummaryService courseSummaryService;
+    private GpaService gpaService;
     private UserSession userSession;
     private JTable coursesTable;
     private DefaultTableModel tableModel;
@@ -23,6 +40,9 @@ public class InstructorDashboard extends JFrame {
 
     public InstructorDashboard() {
         this.dbManager = DatabaseConnectionManager.getInstance();
+        this.asyncDataService = AsyncDataService.getInstance();
+        this.courseSummaryService = CourseSummaryService.getInstance();
+        this.gpaService = GpaService.getInstance();
         this.userSession = UserSession.getInstance();
         setTitle("Instructor Dashboard - " + userSession.getUsername());
         setSize(800, 600);
@@ -41,29 +61,29 @@ public class InstructorDashboard extends JFrame {
         JPanel profilePanel = new JPanel(new GridLayout(2, 2, 10, 10));
         profilePanel.setBorder(BorderFactory.createTitledBorder("Instructor Profile"));
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT instructorName, email, instructorId, department " +
-                    "FROM instructor WHERE instructorId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        profilePanel.add(new JLabel("Name: " + rs.getString("instructorName")));
-                        profilePanel.add(new JLabel("Email: " + rs.getString("email")));
-                        profilePanel.add(new JLabel("Instructor ID: " + rs.getString("instructorId")));
-                        profilePanel.add(new JLabel("Department: " + rs.getString("department")));
+        String query = "SELECT instructorName, email, instructorId, department " +
+                "FROM instructor WHERE instructorId = ?";
+        int instructorId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.queryForObject(query, rs -> new String[]{
+                        "Name: " + rs.getString("instructorName"),
+                        "Email: " + rs.getString("email"),
+                        "Instructor ID: " + rs.getString("instructorId"),
+                        "Department: " + rs.getString("department")
+                }, instructorId),
+                labels -> {
+                    if (labels != null) {
+                        for (String label : labels) {
+                            profilePanel.add(new JLabel(label));
+                        }
+                        profilePanel.revalidate();
                     }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving instructor profile: " + e.getMessage(),
-                    "Profile Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving instructor profile: " + e.getMessage(),
+                        "Profile Error",
+                        JOptionPane.ERROR_MESSAGE));
 
         return profilePanel;
     }
@@ -80,54 +100,47 @@ public class InstructorDashboard extends JFrame {
     }
 
     private void populateManagedCourses() {
-        tableModel.setRowCount(0);
-
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT courseId, courseName, credits, " +
-                    "(SELECT COUNT(*) FROM enrollment e WHERE e.courseId = course.courseId) AS enrolled_students, " +
-                    "(SELECT AVG(CASE " +
-                    "    WHEN grade = 'A+' THEN 4.0 " +
-                    "    WHEN grade = 'A' THEN 4.0 " +
-                    "    WHEN grade = 'A-' THEN 3.7 " +
-                    "    WHEN grade = 'B+' THEN 3.3 " +
-                    "    WHEN grade = 'B' THEN 3.0 " +
-                    "    WHEN grade = 'B-' THEN 2.7 " +
-                    "    WHEN grade = 'C+' THEN 2.3 " +
-                    "    WHEN grade = 'C' THEN 2.0 " +
-                    "    WHEN grade = 'C-' THEN 1.7 " +
-                    "    WHEN grade = 'D+' THEN 1.3 " +
-                    "    WHEN grade = 'D' THEN 1.0 " +
-                    "    WHEN grade = 'D-' THEN 0.7 " +
-                    "    WHEN grade = 'F' THEN 0.0 " +
-                    "    ELSE NULL END) FROM enrollment e WHERE e.courseId = course.courseId) AS average_grade " +
-                    "FROM course " +
-                    "WHERE instructorId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getString("courseId"));
-                        row.add(rs.getString("courseName"));
-                        row.add(rs.getInt("credits"));
-                        row.add(rs.getInt("enrolled_students"));
-
-                        Double avgGrade = rs.getDouble("average_grade");
-                        row.add(avgGrade != null ? String.format("%.2f", avgGrade) : "N/A");
-
-                        tableModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving managed courses: " + e.getMessage(),
-                    "Courses Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT courseId, courseName, credits, " +
+                "(SELECT COUNT(*) FROM enrollment e WHERE e.courseId = course.courseId) AS enrolled_students, " +
+                "(SELECT AVG(CASE " +
+                "    WHEN grade = 'A+' THEN 4.0 " +
+                "    WHEN grade = 'A' THEN 4.0 " +
+                "    WHEN grade = 'A-' THEN 3.7 " +
+                "    WHEN grade = 'B+' THEN 3.3 " +
+                "    WHEN grade = 'B' THEN 3.0 " +
+                "    WHEN grade = 'B-' THEN 2.7 " +
+                "    WHEN grade = 'C+' THEN 2.3 " +
+                "    WHEN grade = 'C' THEN 2.0 " +
+                "    WHEN grade = 'C-' THEN 1.7 " +
+                "    WHEN grade = 'D+' THEN 1.3 " +
+                "    WHEN grade = 'D' THEN 1.0 " +
+                "    WHEN grade = 'D-' THEN 0.7 " +
+                "    WHEN grade = 'F' THEN 0.0 " +
+                "    ELSE NULL END) FROM enrollment e WHERE e.courseId = course.courseId) AS average_grade " +
+                "FROM course " +
+                "WHERE instructorId = ?";
+        int instructorId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getString("courseId"));
+                    row.add(rs.getString("courseName"));
+                    row.add(rs.getInt("credits"));
+                    row.add(rs.getInt("enrolled_students"));
+
+                    Double avgGrade = rs.getDouble("average_grade");
+                    row.add(avgGrade != null ? String.format("%.2f", avgGrade) : "N/A");
+                    return row;
+                }, instructorId),
+                rows -> {
+                    tableModel.setRowCount(0);
+                    rows.forEach(tableModel::addRow);
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving managed courses: " + e.getMessage(),
+                        "Courses Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     private void openGradeManagementDialog() {
@@ -147,14 +160,7 @@ public class InstructorDashboard extends JFrame {
         gradeManagementDialog.setSize(600, 400);
         gradeManagementDialog.setLocationRelativeTo(this);
 
-        String[] columnNames = { "Student ID", "Student Name", "Current Grade" };
-        DefaultTableModel gradeModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 2) return String.class;
-                return super.getColumnClass(columnIndex);
-            }
-        };
+        GradeTableModel gradeModel = new GradeTableModel();
 
         JTable gradesTable = new JTable(gradeModel);
         JComboBox<String> gradeComboBox = new JComboBox<>(GRADE_OPTIONS);
@@ -162,38 +168,24 @@ public class InstructorDashboard extends JFrame {
         TableColumn gradeColumn = gradesTable.getColumnModel().getColumn(2);
         gradeColumn.setCellEditor(new DefaultCellEditor(gradeComboBox));
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT s.studentId, s.studentName, e.grade " +
-                    "FROM student s " +
-                    "JOIN enrollment e ON s.studentId = e.studentId " +
-                    "WHERE e.courseId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setString(1, courseId);
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getString("studentId"));
-                        row.add(rs.getString("studentName"));
-
-                        String grade = rs.getString("grade");
-                        row.add(grade != null ? grade : "");
-
-                        gradeModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(gradeManagementDialog,
-                    "Error retrieving student grades: " + e.getMessage(),
-                    "Grades Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT s.studentId, s.studentName, e.grade " +
+                "FROM student s " +
+                "JOIN enrollment e ON s.studentId = e.studentId " +
+                "WHERE e.courseId = ?";
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    String grade = rs.getString("grade");
+                    return new Object[]{rs.getInt("studentId"), rs.getString("studentName"), grade != null ? grade : ""};
+                }, Integer.parseInt(courseId)),
+                rows -> rows.forEach(row -> gradeModel.addStudent((Integer) row[0], (String) row[1], (String) row[2])),
+                e -> JOptionPane.showMessageDialog(gradeManagementDialog,
+                        "Error retrieving student grades: " + e.getMessage(),
+                        "Grades Error",
+                        JOptionPane.ERROR_MESSAGE));
 
         JButton saveGradesButton = new JButton("Save Grades");
-        saveGradesButton.addActionListener(e -> saveStudentGrades(courseId, gradeModel));
+        saveGradesButton.addActionListener(e -> saveStudentGrades(Integer.parseInt(courseId), gradeModel));
 
         JPanel dialogPanel = new JPanel(new BorderLayout());
         dialogPanel.add(new JScrollPane(gradesTable), BorderLayout.CENTER);
@@ -203,25 +195,72 @@ public class InstructorDashboard extends JFrame {
         gradeManagementDialog.setVisible(true);
     }
 
-    private void saveStudentGrades(String courseId, DefaultTableModel gradeModel) {
+    /**
+     * Writes only the grades changed since the dialog loaded or last saved, as one batch in one transaction.
+     */
+    private void saveStudentGrades(int courseId, GradeTableModel gradeModel) {
+        List<Integer> dirtyRows = gradeModel.getDirtyRows();
+        if (dirtyRows.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "No grade changes to save.",
+                    "Grades",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        String previousQuery = "SELECT studentId, grade FROM enrollment WHERE courseId = ? FOR UPDATE";
+        String updateQuery = "UPDATE enrollment SET grade = ?, gradeUpdatedAt = CURRENT_TIMESTAMP " +
+                "WHERE studentId = ? AND courseId = ?";
+
+        long startedAt = System.nanoTime();
         try {
-            Connection conn = dbManager.getConnection();
-            String updateQuery = "UPDATE enrollment SET grade = ?, gradeUpdatedAt = CURRENT_TIMESTAMP " +
-                    "WHERE studentId = ? AND courseId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(updateQuery)) {
-                for (int row = 0; row < gradeModel.getRowCount(); row++) {
-                    String studentId = (String) gradeModel.getValueAt(row, 0);
-                    String grade = (String) gradeModel.getValueAt(row, 2);
-
-                    if (grade != null && !grade.isEmpty()) {
-                        pstmt.setString(1, grade);
-                        pstmt.setString(2, studentId);
-                        pstmt.setString(3, courseId);
-                        pstmt.executeUpdate();
+            dbManager.inTransaction(conn -> {
+                Map<Integer, Grade> previousGrades = new HashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(previousQuery)) {
+                    pstmt.setInt(1, courseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            previousGrades.put(rs.getInt("studentId"), Grade.fromLabel(rs.getString("grade")));
+                        }
+                    }
+                }
+
+                // Rows are locked above, so every enrolled student in the batch is updated and the
+                // deltas can be taken from the locked grades whatever update counts the driver reports
+                int[] gradeDeltas = new int[Grade.count()];
+                try (PreparedStatement pstmt = conn.prepareStatement(updateQuery)) {
+                    for (int row : dirtyRows) {
+                        int studentId = gradeModel.getStudentId(row);
+                        Grade grade = Grade.fromLabel(gradeModel.getGrade(row));
+                        if (!previousGrades.containsKey(studentId)) {
+                            continue;
+                        }
+
+                        pstmt.setString(1, grade.getLabel());
+                        pstmt.setInt(2, studentId);
+                        pstmt.setInt(3, courseId);
+                        pstmt.addBatch();
+
+                        Grade previous = previousGrades.put(studentId, grade);
+                        if (previous != null) {
+                            gradeDeltas[previous.ordinal()]--;
+                        }
+                        gradeDeltas[grade.ordinal()]++;
                     }
+                    pstmt.executeBatch();
                 }
+
+                courseSummaryService.applyGradeDeltas(conn, courseId, gradeDeltas);
+                return null;
+            });
+
+            gradeModel.markSaved(dirtyRows);
+            for (int row : dirtyRows) {
+                gpaService.invalidate(gradeModel.getStudentId(row));
             }
+            DataChangeNotifier.getInstance().fire(DataChange.GRADE);
+            LOGGER.info(String.format("Saved %d grade changes for course %d in %d ms",
+                    dirtyRows.size(), courseId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
 
             JOptionPane.showMessageDialog(this,
                     "Grades saved successfully!",
@@ -264,8 +303,7 @@ public class InstructorDashboard extends JFrame {
                 return;
             }
 
-            try {
-                Connection conn = dbManager.getConnection();
+            try (Connection conn = dbManager.getConnection()) {
                 String insertQuery = "INSERT INTO course (courseName, credits, instructorId) " +
                         "VALUES (?, ?, ?)";
 
@@ -275,6 +313,7 @@ public class InstructorDashboard extends JFrame {
                     pstmt.setInt(3, userSession.getUserId());
                     pstmt.executeUpdate();
                 }
+                DataChangeNotifier.getInstance().fire(DataChange.COURSE);
 
                 JOptionPane.showMessageDialog(createCourseDialog,
                         "Course created successfully!",
@@ -325,37 +364,30 @@ public class InstructorDashboard extends JFrame {
     }
 
     private void populateAssignmentsList() {
-        assignmentsTableModel.setRowCount(0);
-
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT a.assignmentId, a.title, a.description, a.dueDate, a.isPublished " +
-                    "FROM assignment a " +
-                    "JOIN course c ON a.courseId = c.courseId " +  // Directly join with course
-                    "WHERE c.instructorId = ?";  // Filter by instructor
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getInt("assignmentId"));
-                        row.add(rs.getString("title"));
-                        row.add(rs.getString("description"));
-                        row.add(rs.getDate("dueDate"));
-                        row.add(rs.getBoolean("isPublished") ? "Yes" : "No");
-
-                        assignmentsTableModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving assignments: " + e.getMessage(),
-                    "Assignments Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT a.assignmentId, a.title, a.description, a.dueDate, a.isPublished " +
+                "FROM assignment a " +
+                "JOIN course c ON a.courseId = c.courseId " +  // Directly join with course
+                "WHERE c.instructorId = ?";  // Filter by instructor
+        int instructorId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getInt("assignmentId"));
+                    row.add(rs.getString("title"));
+                    row.add(rs.getString("description"));
+                    row.add(rs.getDate("dueDate"));
+                    row.add(rs.getBoolean("isPublished") ? "Yes" : "No");
+                    return row;
+                }, instructorId),
+                rows -> {
+                    assignmentsTableModel.setRowCount(0);
+                    rows.forEach(assignmentsTableModel::addRow);
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving assignments: " + e.getMessage(),
+                        "Assignments Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     private JPanel createNewAssignmentPanel(JDialog parentDialog) {
@@ -363,9 +395,10 @@ public class InstructorDashboard extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         panel.add(new JLabel("Select Course:"));
-        JComboBox<String> courseComboBox = new JComboBox<>();
-        populateCourseComboBox(courseComboBox);
-        panel.add(courseComboBox);
+        ReferenceComboBoxModel courseModel = new ReferenceComboBoxModel(
+                ReferenceDataCache.Entity.COURSE, userSession.getUserId(), false);
+        courseModel.detachOnClose(parentDialog);
+        panel.add(new JComboBox<>(courseModel));
 
         panel.add(new JLabel("Assignment Title:"));
         JTextField titleField = new JTextField();
@@ -385,7 +418,7 @@ public class InstructorDashboard extends JFrame {
 
         JButton createButton = new JButton("Create Assignment");
         createButton.addActionListener(e -> {
-            Integer selectedCourseId = (Integer) courseComboBox.getClientProperty(courseComboBox.getSelectedItem());
+            Integer selectedCourseId = courseModel.getSelectedId();
             if (selectedCourseId != null && createAssignment(
                     selectedCourseId,  // Pass as an integer
                     titleField.getText(),
@@ -410,104 +443,57 @@ public class InstructorDashboard extends JFrame {
         return panel;
     }
 
-    private void populateCourseComboBox(JComboBox<String> courseComboBox) {
-        courseComboBox.removeAllItems();
+    /**
+     * Inserts the assignment and distributes it to every student enrolled in the course with a
+     * single INSERT ... SELECT, so the cost does not grow with round-trips per student.
+     */
+    private boolean createAssignment(int courseId, String title, String description, String dueDate, boolean isPublished) {
+        String insertAssignmentQuery = "INSERT INTO assignment (courseId, title, description, dueDate, isPublished) VALUES (?, ?, ?, ?, ?)";
+        String distributeQuery = "INSERT INTO assignmentdistribution (assignmentId, enrollmentId) " +
+                "SELECT ?, enrollmentId FROM enrollment WHERE courseId = ?";
 
         try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT courseId, courseName FROM course WHERE instructorId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        int courseId = rs.getInt("courseId");
-                        String courseName = rs.getString("courseName");
-
-                        // Create a custom item that displays the course name but stores the courseId
-                        courseComboBox.addItem(courseName);
+            Date due = Date.valueOf(dueDate);
+            long startedAt = System.nanoTime();
+            int distributed = dbManager.inTransaction(conn -> {
+                int assignmentId;
+                try (PreparedStatement pstmt = conn.prepareStatement(insertAssignmentQuery, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, courseId);
+                    pstmt.setString(2, title);
+                    pstmt.setString(3, description);
+                    pstmt.setDate(4, due);
+                    pstmt.setBoolean(5, isPublished);
+                    pstmt.executeUpdate();
 
-                        // You might want to store the courseId as a client property
-                        courseComboBox.putClientProperty(courseName, courseId);
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Failed to retrieve generated assignmentId.");
+                        }
+                        assignmentId = rs.getInt(1);
                     }
                 }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving courses: " + e.getMessage(),
-                    "Courses Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private boolean createAssignment(int courseId, String title, String description, String dueDate, boolean isPublished) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        int assignmentId = -1;
-
-        try {
-            conn = dbManager.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
-            // Step 1: Insert the new assignment
-            String insertAssignmentQuery = "INSERT INTO assignment (courseId, title, description, dueDate, isPublished) VALUES (?, ?, ?, ?, ?)";
-            pstmt = conn.prepareStatement(insertAssignmentQuery, Statement.RETURN_GENERATED_KEYS);
-            pstmt.setInt(1, courseId);
-            pstmt.setString(2, title);
-            pstmt.setString(3, description);
-            pstmt.setDate(4, Date.valueOf(dueDate));
-            pstmt.setBoolean(5, isPublished);
-            pstmt.executeUpdate();
-
-            // Get the generated assignmentId
-            rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                assignmentId = rs.getInt(1);
-            } else {
-                throw new SQLException("Failed to retrieve generated assignmentId.");
-            }
-
-            // Step 2: Assign this assignment to all enrolled students
-            String enrollmentsQuery = "SELECT enrollmentId FROM enrollment WHERE courseId = ?";
-            pstmt = conn.prepareStatement(enrollmentsQuery);
-            pstmt.setInt(1, courseId);
-            rs = pstmt.executeQuery();
 
-            String insertAssignmentDistQuery = "INSERT INTO assignmentdistribution (assignmentId, enrollmentId) VALUES (?, ?)";
-            pstmt = conn.prepareStatement(insertAssignmentDistQuery);
-
-            while (rs.next()) {
-                int enrollmentId = rs.getInt("enrollmentId");
-                pstmt.setInt(1, assignmentId);
-                pstmt.setInt(2, enrollmentId);
-                pstmt.executeUpdate();
-            }
-
-            // Step 3: Commit transaction
-            conn.commit();
+                try (PreparedStatement pstmt = conn.prepareStatement(distributeQuery)) {
+                    pstmt.setInt(1, assignmentId);
+                    pstmt.setInt(2, courseId);
+                    return pstmt.executeUpdate();
+                }
+            });
+            LOGGER.info(String.format("Created assignment for course %d and distributed it to %d students in %d ms",
+                    courseId, distributed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
             return true;
-
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Due date must be in YYYY-MM-DD format.",
+                    "Assignment Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return false;
         } catch (SQLException e) {
-            try {
-                if (conn != null) conn.rollback(); // Rollback if there's an error
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
-            }
             JOptionPane.showMessageDialog(null,
                     "Error creating assignment: " + e.getMessage(),
                     "Assignment Error",
                     JOptionPane.ERROR_MESSAGE);
             return false;
-        } finally {
-            try {
-                if (rs != null) rs.close();
-                if (pstmt != null) pstmt.close();
-                if (conn != null) conn.setAutoCommit(true); // Reset auto-commit mode
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1,5 +1,6 @@
 package Views;
 
+import Utilities.AsyncDataService;
 import Utilities.AuthenticationManager;
 import Utilities.UserSession;
 
@@ -100,24 +101,31 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        try {
-            if (authManager.authenticate(email, password)) {
-                openDashboard();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Invalid email or password. Please try again.",
-                        "Login Failed",
-                        JOptionPane.ERROR_MESSAGE);
-
-                passwordField.setText("");
-            }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Login error", e);
-            JOptionPane.showMessageDialog(this,
-                    "An error occurred during login. Please try again.",
-                    "System Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        // Password verification is deliberately slow, so it runs off the event dispatch thread
+        loginButton.setEnabled(false);
+        AsyncDataService.getInstance().submit(
+                () -> authManager.authenticate(email, password),
+                authenticated -> {
+                    loginButton.setEnabled(true);
+                    if (authenticated) {
+                        openDashboard();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Invalid email or password. Please try again.",
+                                "Login Failed",
+                                JOptionPane.ERROR_MESSAGE);
+
+                        passwordField.setText("");
+                    }
+                },
+                e -> {
+                    loginButton.setEnabled(true);
+                    LOGGER.log(Level.SEVERE, "Login error", e);
+                    JOptionPane.showMessageDialog(this,
+                            "An error occurred during login. Please try again.",
+                            "System Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
     }
 
     private void openPasswordResetDialog() {
@@ -173,20 +181,31 @@ public class LoginFrame extends JFrame {
                     return;
                 }
 
-                boolean changed = authManager.changePassword(email, oldPassword, newPassword);
-
-                if (changed) {
-                    JOptionPane.showMessageDialog(resetDialog,
-                            "Password successfully changed.",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    resetDialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(resetDialog,
-                            "Failed to change password. Check your current password.",
-                            "Reset Failed",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                confirmResetButton.setEnabled(false);
+                AsyncDataService.getInstance().submit(
+                        () -> authManager.changePassword(email, oldPassword, newPassword),
+                        changed -> {
+                            confirmResetButton.setEnabled(true);
+                            if (changed) {
+                                JOptionPane.showMessageDialog(resetDialog,
+                                        "Password successfully changed.",
+                                        "Success",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                resetDialog.dispose();
+                            } else {
+                                JOptionPane.showMessageDialog(resetDialog,
+                                        "Failed to change password. Check your current password.",
+                                        "Reset Failed",
+                                        JOptionPane.ERROR_MESSAGE);
+                            }
+                        },
+                        error -> {
+                            confirmResetButton.setEnabled(true);
+                            JOptionPane.showMessageDialog(resetDialog,
+                                    "Error changing password: " + error.getMessage(),
+                                    "Reset Failed",
+                                    JOptionPane.ERROR_MESSAGE);
+                        });
             }
         });
         resetPanel.add(confirmResetButton, gbc);
@@ -0,0 +1,222 @@
+package Views;
+
+import Utilities.AsyncDataService;
+import Utilities.DatabaseConnectionManager;
+import Utilities.RowMapper;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only table model that loads rows a page at a time as the table asks for them.
+ * Pages are fetched with keyset pagination on an integer key ({@code WHERE key > ? ORDER BY key LIMIT ?}),
+ * so deep pages cost the same as the first one. Only the most recently used pages are kept in memory,
+ * and the page after the one being viewed is prefetched.
+ * The key column must be the first column of the select clause. All state is touched on the EDT.
+ */
+public class PagedTableModel extends AbstractTableModel {
+    private static final Logger LOGGER = Logger.getLogger(PagedTableModel.class.getName());
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 10;
+
+    private final String[] columnNames;
+    private final String countSql;
+    private final String pageSql;
+    private final String boundarySql;
+    private final RowMapper<Object[]> rowMapper;
+    private final int pageSize;
+
+    private final DatabaseConnectionManager dbManager = DatabaseConnectionManager.getInstance();
+    private final AsyncDataService asyncDataService = AsyncDataService.getInstance();
+
+    private final Map<Integer, Object[][]> pages;
+    private final Map<Integer, Integer> lastKeys = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+    private int rowCount;
+    private int generation;
+
+    /**
+     * @param selectClause Select list starting with the integer key, e.g. {@code SELECT s.studentId, s.studentName}
+     * @param fromClause Table or join the rows come from, without WHERE or ORDER BY
+     * @param keyColumn Qualified key column used for ordering and paging
+     * @param countSql Query returning the total row count
+     */
+    public PagedTableModel(String[] columnNames, String selectClause, String fromClause, String keyColumn,
+                           String countSql, RowMapper<Object[]> rowMapper) {
+        this(columnNames, selectClause, fromClause, keyColumn, countSql, rowMapper,
+                DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public PagedTableModel(String[] columnNames, String selectClause, String fromClause, String keyColumn,
+                           String countSql, RowMapper<Object[]> rowMapper, int pageSize, int maxCachedPages) {
+        this.columnNames = columnNames.clone();
+        this.countSql = countSql;
+        this.pageSql = selectClause + " FROM " + fromClause +
+                " WHERE " + keyColumn + " > ? ORDER BY " + keyColumn + " LIMIT ?";
+        this.boundarySql = "SELECT " + keyColumn + " FROM " + fromClause +
+                " ORDER BY " + keyColumn + " LIMIT 1 OFFSET ?";
+        this.rowMapper = rowMapper;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Drops every cached page and reloads the row count.
+     * @return Future completed with the new row count once the table has been told about it
+     */
+    public CompletableFuture<Integer> refresh() {
+        generation++;
+        pages.clear();
+        lastKeys.clear();
+        pendingPages.clear();
+        failedPages.clear();
+
+        int requestedGeneration = generation;
+        CompletableFuture<Integer> loaded = new CompletableFuture<>();
+        asyncDataService.submit(
+                () -> dbManager.queryForObject(countSql, rs -> rs.getInt(1)),
+                count -> {
+                    if (requestedGeneration == generation) {
+                        rowCount = count == null ? 0 : count;
+                        fireTableDataChanged();
+                    }
+                    loaded.complete(rowCount);
+                },
+                loaded::completeExceptionally);
+        return loaded;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * @return The cell value, or null while its page is still loading
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / pageSize;
+        int offset = rowIndex % pageSize;
+
+        Object[][] page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+
+        if (offset >= pageSize / 2 && (pageIndex + 1) * pageSize < rowCount) {
+            requestPage(pageIndex + 1);
+        }
+        return offset < page.length ? page[offset][columnIndex] : null;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void requestPage(int pageIndex) {
+        if (pages.containsKey(pageIndex) || pendingPages.contains(pageIndex) || failedPages.contains(pageIndex)) {
+            return;
+        }
+        pendingPages.add(pageIndex);
+
+        int requestedGeneration = generation;
+        Integer knownAfterKey = pageIndex == 0 ? Integer.valueOf(Integer.MIN_VALUE) : lastKeys.get(pageIndex - 1);
+
+        asyncDataService.submit(
+                () -> fetchPage(pageIndex, knownAfterKey),
+                fetched -> {
+                    if (requestedGeneration != generation) {
+                        return;
+                    }
+                    pendingPages.remove(pageIndex);
+                    int firstRow = pageIndex * pageSize;
+                    if (fetched.rows.length < pageSize && firstRow + fetched.rows.length < rowCount) {
+                        // Rows were deleted after the count was taken, so the table ends here
+                        rowCount = firstRow + fetched.rows.length;
+                        pages.keySet().removeIf(index -> index > pageIndex);
+                        lastKeys.keySet().removeIf(index -> index > pageIndex);
+                        if (fetched.rows.length > 0) {
+                            pages.put(pageIndex, fetched.rows);
+                            lastKeys.put(pageIndex, fetched.lastKey);
+                        }
+                        fireTableDataChanged();
+                        return;
+                    }
+                    if (fetched.rows.length == 0) {
+                        return;
+                    }
+                    pages.put(pageIndex, fetched.rows);
+                    lastKeys.put(pageIndex, fetched.lastKey);
+
+                    int lastRow = Math.min(rowCount, firstRow + fetched.rows.length) - 1;
+                    if (lastRow >= firstRow) {
+                        fireTableRowsUpdated(firstRow, lastRow);
+                    }
+                },
+                e -> {
+                    if (requestedGeneration == generation) {
+                        pendingPages.remove(pageIndex);
+                        failedPages.add(pageIndex);
+                        LOGGER.log(Level.WARNING, "Failed to load page " + pageIndex, e);
+                    }
+                });
+    }
+
+    /**
+     * Runs in the background. When the previous page's last key is unknown (the user jumped ahead),
+     * it is found with an index-only lookup on the key column first.
+     */
+    private Page fetchPage(int pageIndex, Integer knownAfterKey) {
+        Integer afterKey = knownAfterKey;
+        if (afterKey == null) {
+            afterKey = dbManager.queryForObject(boundarySql, rs -> rs.getInt(1), pageIndex * pageSize - 1);
+            if (afterKey == null) {
+                return new Page(new Object[0][], 0);
+            }
+        }
+
+        int[] lastKey = {afterKey};
+        List<Object[]> rows = dbManager.query(pageSql, rs -> {
+            lastKey[0] = rs.getInt(1);
+            return rowMapper.mapRow(rs);
+        }, afterKey, pageSize);
+        return new Page(rows.toArray(new Object[0][]), lastKey[0]);
+    }
+
+    private static class Page {
+        private final Object[][] rows;
+        private final int lastKey;
+
+        private Page(Object[][] rows, int lastKey) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package Views;
+
+import Utilities.ReferenceDataCache;
+import Utilities.ReferenceDataCache.ReferenceData;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Combo box and list model backed by ReferenceDataCache. Fills itself from the cached data without
+ * querying when the data is already loaded, and updates in place, keeping the selection, whenever the
+ * cache refreshes. Call {@link #detachOnClose(Window)} so the model stops listening when its dialog goes away.
+ */
+public class ReferenceComboBoxModel extends AbstractListModel<String> implements ComboBoxModel<String> {
+    private final ReferenceDataCache cache = ReferenceDataCache.getInstance();
+    private final ReferenceDataCache.Entity entity;
+    private final Integer ownerId;
+    private final boolean showIds;
+    private final Consumer<ReferenceData> listener = this::update;
+
+    private int[] ids = new int[0];
+    private String[] items = new String[0];
+    private Object selectedItem;
+
+    /**
+     * @param ownerId Only show rows owned by this id (a course's instructor), or null for all rows
+     * @param showIds Show items as "id - name" instead of just the name
+     */
+    public ReferenceComboBoxModel(ReferenceDataCache.Entity entity, Integer ownerId, boolean showIds) {
+        this.entity = entity;
+        this.ownerId = ownerId;
+        this.showIds = showIds;
+
+        cache.addListener(entity, listener);
+        ReferenceData data = cache.peek(entity);
+        if (data != null) {
+            update(data);
+        } else {
+            cache.requestRefresh(entity);
+        }
+    }
+
+    public void detachOnClose(Window window) {
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                detach();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                detach();
+            }
+        });
+    }
+
+    public void detach() {
+        cache.removeListener(entity, listener);
+    }
+
+    /**
+     * @return Id of the selected item, or null when nothing is selected
+     */
+    public Integer getSelectedId() {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].equals(selectedItem)) {
+                return ids[i];
+            }
+        }
+        return null;
+    }
+
+    public int getIdAt(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public int getSize() {
+        return items.length;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return items[index];
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selectedItem;
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        selectedItem = item;
+        fireContentsChanged(this, -1, -1);
+    }
+
+    private void update(ReferenceData data) {
+        Integer selectedId = getSelectedId();
+
+        int[] newIds = new int[data.size()];
+        String[] newItems = new String[data.size()];
+        int count = 0;
+        for (int i = 0; i < data.size(); i++) {
+            if (ownerId == null || data.ownerIdAt(i) == ownerId) {
+                newIds[count] = data.idAt(i);
+                newItems[count] = showIds ? data.idAt(i) + " - " + data.nameAt(i) : data.nameAt(i);
+                count++;
+            }
+        }
+        ids = Arrays.copyOf(newIds, count);
+        items = Arrays.copyOf(newItems, count);
+
+        selectedItem = null;
+        for (int i = 0; i < count; i++) {
+            if (selectedId != null ? ids[i] == selectedId : i == 0) {
+                selectedItem = items[i];
+                break;
+            }
+        }
+        fireContentsChanged(this, 0, Math.max(0, count - 1));
+    }
+}
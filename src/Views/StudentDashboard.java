@@ -1,7 +1,9 @@
 package Views;
 
+import Utilities.AsyncDataService;
 import Utilities.AuthenticationManager;
 import Utilities.DatabaseConnectionManager;
+import Utilities.GpaService;
 import Utilities.UserSession;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -12,6 +14,8 @@ import javax.swing.table.TableCellRenderer;
 
 public class StudentDashboard extends JFrame {
     private DatabaseConnectionManager dbManager;
+    private AsyncDataService asyncDataService;
+    private GpaService gpaService;
     private UserSession userSession;
     private JTable enrolledCoursesTable;
     private DefaultTableModel tableModel;
@@ -20,6 +24,8 @@ public class StudentDashboard extends JFrame {
 
     public StudentDashboard() {
         this.dbManager = DatabaseConnectionManager.getInstance();
+        this.asyncDataService = AsyncDataService.getInstance();
+        this.gpaService = GpaService.getInstance();
         this.userSession = UserSession.getInstance();
         setTitle("Student Dashboard - " + userSession.getUsername());
         setSize(800, 600);
@@ -38,26 +44,27 @@ public class StudentDashboard extends JFrame {
         JPanel profilePanel = new JPanel(new GridLayout(2, 2, 10, 10));
         profilePanel.setBorder(BorderFactory.createTitledBorder("Student Profile"));
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT studentName, email, studentId, dateOfBirth " +
-                    "FROM student WHERE studentId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        profilePanel.add(new JLabel("Name: " + rs.getString("studentName")));
-                        profilePanel.add(new JLabel("Email: " + rs.getString("email")));
-                        profilePanel.add(new JLabel("Student ID: " + rs.getString("studentId")));
-                        profilePanel.add(new JLabel("Date of Birth: " + rs.getDate("dateOfBirth")));
+        String query = "SELECT studentName, email, studentId, dateOfBirth " +
+                "FROM student WHERE studentId = ?";
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.queryForObject(query, rs -> new String[]{
+                        "Name: " + rs.getString("studentName"),
+                        "Email: " + rs.getString("email"),
+                        "Student ID: " + rs.getString("studentId"),
+                        "Date of Birth: " + rs.getDate("dateOfBirth")
+                }, studentId),
+                labels -> {
+                    if (labels != null) {
+                        for (String label : labels) {
+                            profilePanel.add(new JLabel(label));
+                        }
+                        profilePanel.revalidate();
                     }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error retrieving student profile: " + e.getMessage(),
-                    "Profile Error", JOptionPane.ERROR_MESSAGE);
-        }
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error retrieving student profile: " + e.getMessage(),
+                        "Profile Error", JOptionPane.ERROR_MESSAGE));
         return profilePanel;
     }
 
@@ -73,33 +80,29 @@ public class StudentDashboard extends JFrame {
     }
 
     private void populateEnrolledCourses() {
-        tableModel.setRowCount(0);
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT c.courseId, c.courseName, i.instructorName, c.credits, e.grade " +
-                    "FROM enrollment e " +
-                    "JOIN course c ON e.courseId = c.courseId " +
-                    "JOIN instructor i ON c.instructorId = i.instructorId " +
-                    "WHERE e.studentId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getInt("courseId"));  // Ensure correct data type
-                        row.add(rs.getString("courseName"));
-                        row.add(rs.getString("instructorName"));
-                        row.add(rs.getInt("credits"));
-                        row.add(rs.getString("grade") != null ? rs.getString("grade") : "Not Graded"); // Handle null case
-                        tableModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error retrieving enrolled courses: " + e.getMessage(),
-                    "Courses Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT c.courseId, c.courseName, i.instructorName, c.credits, e.grade " +
+                "FROM enrollment e " +
+                "JOIN course c ON e.courseId = c.courseId " +
+                "JOIN instructor i ON c.instructorId = i.instructorId " +
+                "WHERE e.studentId = ?";
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getInt("courseId"));  // Ensure correct data type
+                    row.add(rs.getString("courseName"));
+                    row.add(rs.getString("instructorName"));
+                    row.add(rs.getInt("credits"));
+                    row.add(rs.getString("grade") != null ? rs.getString("grade") : "Not Graded"); // Handle null case
+                    return row;
+                }, studentId),
+                rows -> {
+                    tableModel.setRowCount(0);
+                    rows.forEach(tableModel::addRow);
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error retrieving enrolled courses: " + e.getMessage(),
+                        "Courses Error", JOptionPane.ERROR_MESSAGE));
     }
 
 
@@ -125,11 +128,20 @@ public class StudentDashboard extends JFrame {
     }
 
     private void calculateAndDisplayGPA() {
-        // Note: The current schema doesn't have an easy way to calculate GPA
-        // as the enrollment grade is an enum, not a numeric value
-        JOptionPane.showMessageDialog(this,
-                "GPA calculation is not supported with current database schema.",
-                "GPA Information", JOptionPane.INFORMATION_MESSAGE);
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> gpaService.getGpa(studentId),
+                gpa -> {
+                    String message = gpa.gradedCourses() == 0
+                            ? "No graded courses yet."
+                            : String.format("GPA: %.2f%nGraded courses: %d%nGraded credits: %d",
+                                    gpa.gpa(), gpa.gradedCourses(), gpa.gradedCredits());
+                    JOptionPane.showMessageDialog(this, message, "GPA Information",
+                            JOptionPane.INFORMATION_MESSAGE);
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error calculating GPA: " + e.getMessage(),
+                        "GPA Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void openCourseBrowser() {
@@ -141,34 +153,28 @@ public class StudentDashboard extends JFrame {
         DefaultTableModel browserModel = new DefaultTableModel(columnNames, 0);
         JTable coursesTable = new JTable(browserModel);
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT c.courseId, c.courseName, i.instructorName, c.credits, " +
-                    "(SELECT COUNT(*) FROM enrollment e WHERE e.courseId = c.courseId) AS enrolled_count " +
-                    "FROM course c " +
-                    "JOIN instructor i ON c.instructorId = i.instructorId " +
-                    "WHERE c.courseId NOT IN " +
-                    "(SELECT courseId FROM enrollment WHERE studentId = ?)";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getString("courseId"));
-                        row.add(rs.getString("courseName"));
-                        row.add(rs.getString("instructorName"));
-                        row.add(rs.getInt("credits"));
-                        row.add("Available");
-                        browserModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(courseBrowserDialog,
-                    "Error retrieving courses: " + e.getMessage(),
-                    "Courses Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT c.courseId, c.courseName, i.instructorName, c.credits, " +
+                "(SELECT COUNT(*) FROM enrollment e WHERE e.courseId = c.courseId) AS enrolled_count " +
+                "FROM course c " +
+                "JOIN instructor i ON c.instructorId = i.instructorId " +
+                "WHERE c.courseId NOT IN " +
+                "(SELECT courseId FROM enrollment WHERE studentId = ?)";
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getString("courseId"));
+                    row.add(rs.getString("courseName"));
+                    row.add(rs.getString("instructorName"));
+                    row.add(rs.getInt("credits"));
+                    row.add("Available");
+                    return row;
+                }, studentId),
+                rows -> rows.forEach(browserModel::addRow),
+                e -> JOptionPane.showMessageDialog(courseBrowserDialog,
+                        "Error retrieving courses: " + e.getMessage(),
+                        "Courses Error", JOptionPane.ERROR_MESSAGE));
 
         courseBrowserDialog.add(new JScrollPane(coursesTable));
         courseBrowserDialog.setVisible(true);
@@ -223,38 +229,34 @@ public class StudentDashboard extends JFrame {
     }
 
     private void populateAvailableAssignments() {
-        assignmentsModel.setRowCount(0);
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT a.assignmentId, c.courseId, c.courseName, a.title, a.description, a.dueDate " +
-                    "FROM assignment a " +
-                    "JOIN assignmentdistribution ad ON a.assignmentId = ad.assignmentId " +
-                    "JOIN enrollment e ON ad.enrollmentId = e.enrollmentId " +
-                    "JOIN course c ON e.courseId = c.courseId " +
-                    "WHERE e.studentId = ? " +
-                    "AND a.isPublished = 1 " +
-                    "AND ad.submittedAt IS NULL";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getInt("assignmentId"));
-                        row.add(rs.getString("courseName"));
-                        row.add(rs.getString("title"));
-                        row.add(rs.getString("description"));
-                        row.add(rs.getDate("dueDate"));
-                        row.add("Submit");
-                        assignmentsModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving assignments: " + e.getMessage(),
-                    "Assignments Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT a.assignmentId, c.courseId, c.courseName, a.title, a.description, a.dueDate " +
+                "FROM assignment a " +
+                "JOIN assignmentdistribution ad ON a.assignmentId = ad.assignmentId " +
+                "JOIN enrollment e ON ad.enrollmentId = e.enrollmentId " +
+                "JOIN course c ON e.courseId = c.courseId " +
+                "WHERE e.studentId = ? " +
+                "AND a.isPublished = 1 " +
+                "AND ad.submittedAt IS NULL";
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getInt("assignmentId"));
+                    row.add(rs.getString("courseName"));
+                    row.add(rs.getString("title"));
+                    row.add(rs.getString("description"));
+                    row.add(rs.getDate("dueDate"));
+                    row.add("Submit");
+                    return row;
+                }, studentId),
+                rows -> {
+                    assignmentsModel.setRowCount(0);
+                    rows.forEach(assignmentsModel::addRow);
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving assignments: " + e.getMessage(),
+                        "Assignments Error", JOptionPane.ERROR_MESSAGE));
     }
 
 
@@ -265,36 +267,30 @@ public class StudentDashboard extends JFrame {
         DefaultTableModel submittedModel = new DefaultTableModel(columnNames, 0);
         JTable submittedTable = new JTable(submittedModel);
 
-        try {
-            Connection conn = dbManager.getConnection();
-            String query = "SELECT a.assignmentId, c.courseName, a.title, " +
-                    "ad.submittedAt, ad.score, ad.feedback " +
-                    "FROM assignmentdistribution ad " +
-                    "JOIN assignment a ON ad.assignmentId = a.assignmentId " +
-                    "JOIN enrollment e ON ad.enrollmentId = e.enrollmentId " +
-                    "JOIN course c ON e.courseId = c.courseId " +
-                    "WHERE e.studentId = ?";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userSession.getUserId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(rs.getInt("assignmentId"));
-                        row.add(rs.getString("courseName"));
-                        row.add(rs.getString("title"));
-                        row.add(rs.getTimestamp("submittedAt"));
-                        row.add(rs.getBigDecimal("score"));
-                        row.add(rs.getString("feedback"));
-                        submittedModel.addRow(row);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error retrieving submitted assignments: " + e.getMessage(),
-                    "Assignments Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String query = "SELECT a.assignmentId, c.courseName, a.title, " +
+                "ad.submittedAt, ad.score, ad.feedback " +
+                "FROM assignmentdistribution ad " +
+                "JOIN assignment a ON ad.assignmentId = a.assignmentId " +
+                "JOIN enrollment e ON ad.enrollmentId = e.enrollmentId " +
+                "JOIN course c ON e.courseId = c.courseId " +
+                "WHERE e.studentId = ?";
+        int studentId = userSession.getUserId();
+
+        asyncDataService.submit(
+                () -> dbManager.query(query, rs -> {
+                    Vector<Object> row = new Vector<>();
+                    row.add(rs.getInt("assignmentId"));
+                    row.add(rs.getString("courseName"));
+                    row.add(rs.getString("title"));
+                    row.add(rs.getTimestamp("submittedAt"));
+                    row.add(rs.getBigDecimal("score"));
+                    row.add(rs.getString("feedback"));
+                    return row;
+                }, studentId),
+                rows -> rows.forEach(submittedModel::addRow),
+                e -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving submitted assignments: " + e.getMessage(),
+                        "Assignments Error", JOptionPane.ERROR_MESSAGE));
 
         JScrollPane scrollPane = new JScrollPane(submittedTable);
         submittedAssignmentsPanel.add(scrollPane, BorderLayout.CENTER);
@@ -345,8 +341,7 @@ public class StudentDashboard extends JFrame {
     }
 
     private boolean submitAssignment(int assignmentId, String submissionText) {
-        try {
-            Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getConnection()) {
 
             // Find the corresponding enrollment ID
             String findEnrollmentQuery = "SELECT enrollmentId FROM enrollment " +